@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.auth.signatures.Algorithm;
+import org.tomitribe.auth.signatures.Signature;
+import org.tomitribe.auth.signatures.Signer;
+
+/**
+ * Compare the cost of the asymmetric algorithms supported by the policy, for keys of a comparable strength:
+ * RSA-2048 and ECDSA P-256 against EdDSA Ed25519, and Ed448 as the stronger EdDSA curve.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsymmetricSignBenchmark {
+
+    @Param({ "RSA_SHA256", "ECDSA_SHA256", "ED25519", "ED448" })
+    public Algorithm algorithm;
+
+    private Signer signer;
+    private Map<String, String> headers;
+
+    @Setup
+    public void setup() throws Exception {
+        signer = new Signer(keyPair().getPrivate(), new Signature("benchmark-key", null, algorithm, null, null, List.of("date", "host")));
+        headers = Map.of("date", "Tue, 07 Jun 2026 20:51:35 GMT", "host", "api.gravitee.io");
+    }
+
+    @Benchmark
+    public String sign() throws Exception {
+        return signer.sign("get", "/", headers).getSignature();
+    }
+
+    private KeyPair keyPair() throws Exception {
+        final KeyPairGenerator generator;
+        switch (algorithm) {
+            case RSA_SHA256:
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+                break;
+            case ECDSA_SHA256:
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(256);
+                break;
+            default:
+                generator = KeyPairGenerator.getInstance(algorithm.getJvmName());
+        }
+        return generator.generateKeyPair();
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.auth.signatures.Base64;
+
+/**
+ * Measure the Base64 encoding of raw signatures, from the size of an HMAC-SHA256 signature to the size of an RSA-4096 one.
+ * <p>
+ * {@link #encodeToByteArrayThenString()} is the path used by the signer before the codec wrote into caller buffers, and
+ * only relies on API available in both versions, so that it can be run against the previous commit as a baseline.
+ * Run with <code>-prof gc</code> to compare the allocation rate of each variant.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class Base64Benchmark {
+
+    @Param({ "32", "64", "256", "512" })
+    public int signatureLength;
+
+    private byte[] signature;
+    private byte[] encoded;
+    private byte[] buffer;
+    private char[] chars;
+    private StringBuilder header;
+
+    @Setup
+    public void setup() {
+        signature = new byte[signatureLength];
+        new Random(signatureLength).nextBytes(signature);
+        encoded = Base64.encodeBase64(signature);
+        buffer = new byte[encoded.length];
+        chars = new char[encoded.length];
+        header = new StringBuilder(encoded.length + 256);
+    }
+
+    @Benchmark
+    public String encodeToByteArrayThenString() {
+        return new String(Base64.encodeBase64(signature), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String encodeToString() {
+        return Base64.encodeToString(signature);
+    }
+
+    @Benchmark
+    public int encodeIntoByteArray() {
+        return Base64.encode(signature, 0, signature.length, buffer, 0);
+    }
+
+    @Benchmark
+    public int encodeIntoCharArray() {
+        return Base64.encode(signature, 0, signature.length, chars, 0);
+    }
+
+    @Benchmark
+    public int encodeIntoHeader() {
+        header.setLength(0);
+        header.append("Signature keyId=\"my-key\",algorithm=\"hmac-sha256\",signature=\"");
+        return Base64.encode(signature, header).append('"').length();
+    }
+
+    @Benchmark
+    public String jdkEncodeToString() {
+        return java.util.Base64.getEncoder().encodeToString(signature);
+    }
+
+    @Benchmark
+    public byte[] decode() {
+        return Base64.decodeBase64(encoded);
+    }
+
+    @Benchmark
+    public byte[] jdkDecode() {
+        return java.util.Base64.getDecoder().decode(encoded);
+    }
+}
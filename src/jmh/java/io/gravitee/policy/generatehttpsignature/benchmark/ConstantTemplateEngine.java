@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import io.gravitee.el.TemplateContext;
+import io.gravitee.el.TemplateEngine;
+import io.reactivex.rxjava3.core.Maybe;
+
+/**
+ * A template engine resolving every expression to the same value, so that benchmarks measure the cost of the policy
+ * around the expression rather than the evaluation of the expression itself.
+ *
+ * @author GraviteeSource Team
+ */
+final class ConstantTemplateEngine implements TemplateEngine {
+
+    private final Maybe<Object> value;
+
+    ConstantTemplateEngine(String value) {
+        this.value = Maybe.just(value);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Maybe<T> eval(String expression, Class<T> clazz) {
+        return (Maybe<T>) value;
+    }
+
+    @Override
+    public <T> T getValue(String expression, Class<T> clazz) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T evalNow(String expression, Class<T> clazz) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TemplateContext getTemplateContext() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import io.gravitee.common.http.HttpMethod;
+import io.gravitee.el.TemplateEngine;
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.api.http.HttpHeaders;
+import io.gravitee.gateway.reactive.api.context.ContextAttributes;
+import io.gravitee.gateway.reactive.api.context.http.HttpBaseRequest;
+import io.gravitee.gateway.reactive.api.context.http.HttpMessageExecutionContext;
+import io.gravitee.gateway.reactive.api.context.http.HttpMessageRequest;
+import io.gravitee.gateway.reactive.api.context.http.HttpMessageResponse;
+import io.gravitee.gateway.reactive.api.context.http.HttpPlainExecutionContext;
+import io.gravitee.gateway.reactive.api.context.http.HttpPlainRequest;
+import io.gravitee.gateway.reactive.api.context.http.HttpPlainResponse;
+import io.gravitee.gateway.reactive.api.message.DefaultMessage;
+import io.gravitee.gateway.reactive.api.message.Message;
+import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.FlowableTransformer;
+import io.reactivex.rxjava3.core.Maybe;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Lightweight in-memory stand-ins of the gateway execution contexts, answering the calls made by the policy from plain
+ * headers, a body buffer and a single message.
+ * <p>
+ * They are dynamic proxies rather than mocks: no invocation is recorded, so that the latency and allocation measured are
+ * the ones of the policy. Any call the policy is not expected to make fails with an {@link UnsupportedOperationException}.
+ *
+ * @author GraviteeSource Team
+ */
+final class InMemoryContexts {
+
+    private final HttpHeaders requestHeaders;
+    private final HttpHeaders responseHeaders;
+    private final HttpHeaders trailers = HttpHeaders.create();
+    private final Buffer body;
+    private final Message message;
+    private final TemplateEngine templateEngine;
+    private final long timestamp = System.currentTimeMillis();
+
+    /**
+     * @param headers the headers of the request, the response and the message, copied for each of them
+     * @param body the body of the request and the response, and the content of the message
+     * @param templateEngine the template engine resolving the expressions of the configuration
+     */
+    InMemoryContexts(Map<String, String> headers, Buffer body, TemplateEngine templateEngine) {
+        this.requestHeaders = headers(headers);
+        this.responseHeaders = headers(headers);
+        this.body = body;
+        this.message = DefaultMessage.builder().id("benchmark-message").headers(headers(headers)).build().content(body);
+        this.templateEngine = templateEngine;
+    }
+
+    HttpPlainExecutionContext plain() {
+        final Map<String, Function<Object[], Object>> response = new HashMap<>();
+        response.put("headers", args -> responseHeaders);
+        response.put("trailers", args -> trailers);
+        response.put("body", args -> Maybe.just(body));
+        final HttpPlainResponse plainResponse = standIn(HttpPlainResponse.class, response);
+
+        final Map<String, Function<Object[], Object>> ctx = context(HttpPlainRequest.class);
+        ctx.put("response", args -> plainResponse);
+        ctx.put("interruptWith", args -> Completable.complete());
+        return standIn(HttpPlainExecutionContext.class, ctx);
+    }
+
+    @SuppressWarnings("unchecked")
+    HttpMessageExecutionContext message() {
+        final Map<String, Function<Object[], Object>> response = new HashMap<>();
+        response.put(
+            "onMessages",
+            args -> Flowable.just(message).compose((FlowableTransformer<Message, Message>) args[0]).ignoreElements()
+        );
+        response.put(
+            "onMessage",
+            args ->
+                Flowable.just(message)
+                    .concatMapMaybe((io.reactivex.rxjava3.functions.Function<Message, Maybe<Message>>) args[0])
+                    .ignoreElements()
+        );
+        final HttpMessageResponse messageResponse = standIn(HttpMessageResponse.class, response);
+
+        final Map<String, Function<Object[], Object>> ctx = context(HttpMessageRequest.class);
+        ctx.put("response", args -> messageResponse);
+        ctx.put("interruptMessageWith", args -> Maybe.empty());
+        return standIn(HttpMessageExecutionContext.class, ctx);
+    }
+
+    /**
+     * @param requestType the type of request exposed by the context
+     * @return the answers common to both contexts: the request, from which the policy reads the timestamp and request target
+     * whatever the phase, the template engine, the attributes, of which only the API is read, and the components
+     */
+    private Map<String, Function<Object[], Object>> context(Class<? extends HttpBaseRequest> requestType) {
+        final Map<String, Function<Object[], Object>> request = new HashMap<>();
+        request.put("headers", args -> requestHeaders);
+        request.put("timestamp", args -> timestamp);
+        request.put("method", args -> HttpMethod.POST);
+        request.put("uri", args -> "/api/v1/orders?page=1");
+        request.put("body", args -> Maybe.just(body));
+        final HttpBaseRequest baseRequest = standIn(requestType, request);
+
+        final Map<String, Function<Object[], Object>> ctx = new HashMap<>();
+        ctx.put("request", args -> baseRequest);
+        ctx.put("getTemplateEngine", args -> templateEngine);
+        ctx.put("getAttribute", args -> ContextAttributes.ATTR_API.equals(args[0]) ? "benchmark-api" : null);
+        ctx.put("setAttribute", args -> null);
+        // No meter registry: the metrics are no-op, as they are measured on their own
+        ctx.put("getComponent", args -> null);
+        return ctx;
+    }
+
+    private static <T> T standIn(Class<T> type, Map<String, Function<Object[], Object>> answers) {
+        return type.cast(
+            Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+                final Function<Object[], Object> answer = answers.get(method.getName());
+                if (answer != null) {
+                    return answer.apply(args);
+                }
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "InMemory" + type.getSimpleName();
+                    default:
+                        throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName());
+                }
+            })
+        );
+    }
+
+    private static HttpHeaders headers(Map<String, String> values) {
+        final HttpHeaders headers = HttpHeaders.create();
+        values.forEach(headers::set);
+        return headers;
+    }
+}
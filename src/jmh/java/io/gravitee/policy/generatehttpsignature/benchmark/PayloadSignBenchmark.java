@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.auth.signatures.Algorithm;
+import org.tomitribe.auth.signatures.Signature;
+import org.tomitribe.auth.signatures.Signer;
+
+/**
+ * Compare signing a body decoded to a {@link String} (former <code>body.toString()</code> path) with signing the raw bytes
+ * of the buffer views. Run with <code>-prof gc</code> to see the allocation rate per operation.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadSignBenchmark {
+
+    @Param({ "65536", "1048576", "10485760" })
+    public int payloadSize;
+
+    private Signer signer;
+    private Map<String, String> headers;
+    private ByteBuf body;
+
+    @Setup
+    public void setup() {
+        final Algorithm algorithm = Algorithm.HMAC_SHA256;
+        final SecretKeySpec key = new SecretKeySpec("benchmark-secret".getBytes(StandardCharsets.UTF_8), algorithm.getJvmName());
+        signer = new Signer(key, new Signature("benchmark-key", null, algorithm, null, null, List.of("date")));
+        headers = Map.of("date", "Tue, 07 Jun 2026 20:51:35 GMT");
+        final byte[] bytes = new byte[payloadSize];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) ('a' + i % 26);
+        }
+        body = Unpooled.wrappedBuffer(bytes);
+    }
+
+    @Benchmark
+    public String decodedPayload() throws Exception {
+        return signer.signWithPayload("get", "/", headers, body.toString(StandardCharsets.UTF_8)).getSignature();
+    }
+
+    @Benchmark
+    public String rawPayload() throws Exception {
+        return signer
+            .signWithPayload(
+                "get",
+                "/",
+                name -> List.of(headers.get(name)),
+                sink -> {
+                    for (ByteBuffer view : body.nioBuffers(body.readerIndex(), body.readableBytes())) {
+                        sink.write(view);
+                    }
+                }
+            )
+            .getSignature();
+    }
+}
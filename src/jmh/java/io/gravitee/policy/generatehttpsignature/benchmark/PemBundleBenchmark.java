@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.auth.signatures.PEM;
+
+/**
+ * Measure the PEM parser over large bundles of RSA-2048 public keys, read from a stream, a byte array or a memory-mapped file.
+ * The bundle cycles through a few distinct keys, so that it can be large without generating thousands of keys.
+ * Run with <code>-prof gc</code> to compare the allocation rate of the three sources.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PemBundleBenchmark {
+
+    private static final int DISTINCT_KEYS = 8;
+    private static final byte[] LINE_FEED = { '\n' };
+
+    @Param({ "100", "10000" })
+    public int keys;
+
+    private byte[] bundle;
+    private Path file;
+
+    @Setup
+    public void setup() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final String[] pems = new String[DISTINCT_KEYS];
+        for (int i = 0; i < DISTINCT_KEYS; i++) {
+            final byte[] encoded = generator.generateKeyPair().getPublic().getEncoded();
+            final String base64 = java.util.Base64.getMimeEncoder(64, LINE_FEED).encodeToString(encoded);
+            pems[i] = "-----BEGIN PUBLIC KEY-----\n" + base64 + "\n-----END PUBLIC KEY-----\n";
+        }
+
+        final StringBuilder all = new StringBuilder();
+        for (int i = 0; i < keys; i++) {
+            all.append(pems[i % DISTINCT_KEYS]);
+        }
+        bundle = all.toString().getBytes(StandardCharsets.US_ASCII);
+        file = Files.createTempFile("pem-bundle", ".pem");
+        Files.write(file, bundle);
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public List<PublicKey> fromStream() throws Exception {
+        return PEM.readPublicKeys(new ByteArrayInputStream(bundle));
+    }
+
+    @Benchmark
+    public List<PublicKey> fromBytes() throws Exception {
+        return PEM.readPublicKeys(bundle);
+    }
+
+    @Benchmark
+    public List<PublicKey> fromMappedFile() throws Exception {
+        return PEM.readPublicKeys(file);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.reactive.api.context.http.HttpMessageExecutionContext;
+import io.gravitee.gateway.reactive.api.context.http.HttpPlainExecutionContext;
+import io.gravitee.policy.generatehttpsignature.GenerateHttpSignaturePolicy;
+import io.gravitee.policy.generatehttpsignature.configuration.GenerateHttpSignaturePolicyConfiguration;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measure the whole policy per request, EL resolution, reactive assembly, header access, body aggregation and header
+ * rendering included, by driving <code>onRequest</code>, <code>onResponse</code> and <code>onMessageResponse</code>
+ * against the in-memory contexts of {@link InMemoryContexts}.
+ * <p>
+ * Each configuration is read from one of the fixtures of the project, relative to its base directory: the API definitions
+ * of the integration tests, for which the configuration of the first policy of the first flow is used, and the documented
+ * examples. The fixture with a broken expression is left out, as expressions are resolved by a
+ * {@link ConstantTemplateEngine} standing in for the secret manager.
+ * <p>
+ * {@link #main(String[])} runs every fixture with the GC profiler, to report the allocation rate per request.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PolicyBenchmark {
+
+    @Param(
+        {
+            "src/test/resources/apis/signature-with-created-and-expires.json",
+            "src/test/resources/apis/signature-with-no-created-and-expires.json",
+            "src/test/resources/apis/authorization-with-created-and-expires.json",
+            "src/test/resources/apis/authorization-with-no-created-and-expires.json",
+            "src/test/resources/apis/authorization-with-missing-header.json",
+            ".docgen/examples/basic_response_signature.json",
+            ".docgen/examples/response_signature_secret_manager.json",
+            ".docgen/examples/response_signature_with_headers.json",
+        }
+    )
+    public String fixture;
+
+    @Param({ "1024", "65536" })
+    public int payloadSize;
+
+    private GenerateHttpSignaturePolicy policy;
+    private HttpPlainExecutionContext plainContext;
+    private HttpMessageExecutionContext messageContext;
+
+    @Setup
+    public void setup() throws Exception {
+        policy = new GenerateHttpSignaturePolicy(configuration(fixture));
+
+        final byte[] bytes = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(bytes);
+        final InMemoryContexts contexts = new InMemoryContexts(
+            Map.of(
+                "Date",
+                "Tue, 07 Jun 2026 20:51:35 GMT",
+                "Host",
+                "api.gravitee.io",
+                "Content-Type",
+                "application/octet-stream",
+                "kafka-topic",
+                "orders",
+                "kafka-partition",
+                "3"
+            ),
+            Buffer.buffer(bytes),
+            new ConstantTemplateEngine("benchmark-secret")
+        );
+        plainContext = contexts.plain();
+        messageContext = contexts.message();
+    }
+
+    @Benchmark
+    public void onRequest() {
+        policy.onRequest(plainContext).blockingAwait();
+    }
+
+    @Benchmark
+    public void onResponse() {
+        policy.onResponse(plainContext).blockingAwait();
+    }
+
+    @Benchmark
+    public void onMessageResponse() {
+        policy.onMessageResponse(messageContext).blockingAwait();
+    }
+
+    private static GenerateHttpSignaturePolicyConfiguration configuration(String fixture) throws Exception {
+        final ObjectMapper mapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        JsonNode configuration = mapper.readTree(Path.of(fixture).toFile());
+        if (configuration.has("flows")) {
+            configuration = configuration.path("flows").path(0).path("pre").path(0).path("configuration");
+        }
+        return mapper.treeToValue(configuration, GenerateHttpSignaturePolicyConfiguration.class);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(PolicyBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import io.gravitee.policy.generatehttpsignature.configuration.Algorithm;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.security.KeyPairGenerator;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.tomitribe.auth.signatures.Signature;
+import org.tomitribe.auth.signatures.Signer;
+
+/**
+ * Measure {@link Signer#signWithPayload} for every {@link Algorithm} the policy can be configured with, over a matrix of
+ * signed header counts, payload sizes and concurrent threads, the signer being shared by all threads as it is by the policy.
+ * <p>
+ * Both throughput and average time are reported. The complete matrix is large, narrow it with JMH options, e.g.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="SignerMatrixBenchmark -p algorithm=HMAC_SHA256,ED25519 -p payloadSize=0 -prof gc"
+ * </pre>
+ * {@link #main(String[])} runs the whole matrix with the GC profiler, to report the allocation rate of each configuration.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SignerMatrixBenchmark {
+
+    private static final String METHOD = "post";
+    private static final String URI = "/api/v1/orders?page=1";
+
+    // No value: JMH runs every constant of the enum
+    @Param
+    public Algorithm algorithm;
+
+    @Param({ "1", "5", "20" })
+    public int headerCount;
+
+    @Param({ "0", "1024", "65536", "1048576", "10485760" })
+    public int payloadSize;
+
+    private Signer signer;
+    private Function<String, List<String>> headers;
+    private ByteBuffer payload;
+
+    @Setup
+    public void setup() throws Exception {
+        final List<String> names = new ArrayList<>(headerCount);
+        final Map<String, List<String>> values = new HashMap<>();
+        names.add("date");
+        values.put("date", List.of("Tue, 07 Jun 2026 20:51:35 GMT"));
+        for (int i = 1; i < headerCount; i++) {
+            final String name = "x-benchmark-" + i;
+            names.add(name);
+            values.put(name, List.of("value-of-the-benchmark-header-" + i));
+        }
+        headers = values::get;
+
+        final org.tomitribe.auth.signatures.Algorithm alg = algorithm.getAlg();
+        signer = new Signer(key(alg), new Signature("benchmark-key", null, alg, algorithm.getParameterSpec(), null, names));
+
+        final byte[] bytes = new byte[payloadSize];
+        new Random(payloadSize).nextBytes(bytes);
+        payload = ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String singleThread() throws Exception {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String fourThreads() throws Exception {
+        return sign();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String allProcessors() throws Exception {
+        return sign();
+    }
+
+    private String sign() throws Exception {
+        final Long created = System.currentTimeMillis();
+        return signer.signWithPayload(METHOD, URI, headers, created, null, sink -> sink.write(payload.duplicate())).toString();
+    }
+
+    private Key key(final org.tomitribe.auth.signatures.Algorithm alg) throws Exception {
+        if (Mac.class.equals(alg.getType())) {
+            return new SecretKeySpec("benchmark-secret".getBytes(StandardCharsets.UTF_8), alg.getJvmName());
+        }
+
+        final KeyPairGenerator generator;
+        switch (algorithm) {
+            case ECDSA_SHA256:
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(256);
+                break;
+            case ECDSA_SHA384:
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(384);
+                break;
+            case ECDSA_SHA512:
+                generator = KeyPairGenerator.getInstance("EC");
+                generator.initialize(521);
+                break;
+            case ED25519:
+            case ED448:
+                generator = KeyPairGenerator.getInstance(alg.getJvmName());
+                break;
+            default:
+                generator = KeyPairGenerator.getInstance("RSA");
+                generator.initialize(2048);
+        }
+        return generator.generateKeyPair().getPrivate();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder().include(SignerMatrixBenchmark.class.getSimpleName()).addProfiler(GCProfiler.class).build()).run();
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.benchmark;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.tomitribe.auth.signatures.Algorithm;
+import org.tomitribe.auth.signatures.Base64;
+import org.tomitribe.auth.signatures.Signature;
+import org.tomitribe.auth.signatures.Signatures;
+import org.tomitribe.auth.signatures.Signer;
+
+/**
+ * Compare HMAC signing through {@link Signer} (per-thread pre-keyed {@link Mac}) with the former path,
+ * which looked up and initialized a new {@link Mac} for every signature.
+ *
+ * @author GraviteeSource Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymmetricSignBenchmark {
+
+    @Param({ "HMAC_SHA256", "HMAC_SHA512" })
+    public Algorithm algorithm;
+
+    @Param({ "0", "1024", "65536" })
+    public int payloadSize;
+
+    private SecretKeySpec key;
+    private Signer signer;
+    private List<String> signedHeaders;
+    private Map<String, String> headers;
+    private String payload;
+
+    @Setup
+    public void setup() {
+        key = new SecretKeySpec("benchmark-secret".getBytes(StandardCharsets.UTF_8), algorithm.getJvmName());
+        signer = new Signer(key, new Signature("benchmark-key", null, algorithm, null, null, List.of("date", "host")));
+        signedHeaders = List.of("date", "host");
+        headers = Map.of("date", "Tue, 07 Jun 2026 20:51:35 GMT", "host", "api.gravitee.io");
+        payload = "x".repeat(payloadSize);
+    }
+
+    @Benchmark
+    public String perCallMac() throws Exception {
+        final String signingString = Signatures.createSigningStringWithPayload(signedHeaders, "get", "/", headers, null, null, payload);
+        final Mac mac = Mac.getInstance(algorithm.getJvmName());
+        mac.init(key);
+        return new String(Base64.encodeBase64(mac.doFinal(signingString.getBytes(StandardCharsets.UTF_8))), StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public String threadLocalMac() throws Exception {
+        return signer.signWithPayload("get", "/", headers, null, null, payload).getSignature();
+    }
+}
@@ -24,39 +24,72 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class AdditionalHeadersProcessor {
 
+    private static final InvalidHeadersException NO_HEADERS = new InvalidHeadersException(
+        "Additional headers enabled, but no headers configured"
+    );
+
     private final List<String> headerNames;
     private final String delimiter;
+    private final InvalidHeadersException[] missingHeaders;
 
     public AdditionalHeadersProcessor(GenerateHttpSignaturePolicyConfiguration configuration) {
         this.headerNames = List.copyOf(Optional.ofNullable(configuration.headers()).orElseGet(List::of));
         this.delimiter = configuration.headersDelimiter();
+        this.missingHeaders = new InvalidHeadersException[headerNames.size()];
+        for (int i = 0; i < missingHeaders.length; i++) {
+            missingHeaders[i] = new InvalidHeadersException("Required header '" + headerNames.get(i) + "' is missing");
+        }
     }
 
     public String processHeaders(String payload, Function<String, String> headerGetter) {
+        try {
+            return prefix(headerGetter) + payload;
+        } catch (InvalidHeadersException e) {
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * Build the part prepended to the payload: the value of each configured header followed by the delimiter.
+     *
+     * @param headerGetter the header lookup of the signed message
+     * @return the prefix to sign before the payload
+     * @throws InvalidHeadersException if no header is configured, or one of them is missing from the message
+     */
+    String prefix(Function<String, String> headerGetter) {
         validateHeaders();
 
-        StringBuilder result = new StringBuilder(payload.length() + 64);
+        StringBuilder result = new StringBuilder(64);
 
-        for (String headerName : headerNames) {
-            String headerValue = headerGetter.apply(headerName);
+        for (int i = 0; i < missingHeaders.length; i++) {
+            String headerValue = headerGetter.apply(headerNames.get(i));
 
             if (headerValue == null) {
-                throw new IllegalArgumentException("Required header '" + headerName + "' is missing");
+                throw missingHeaders[i];
             }
 
             result.append(headerValue).append(delimiter);
         }
 
-        result.append(payload);
-
-        log.debug("Payload prepared with additional headers (headersCount={}, finalLength={})", headerNames.size(), result.length());
+        log.debug("Payload prefix prepared (headersCount={}, prefixLength={})", headerNames.size(), result.length());
 
         return result.toString();
     }
 
     private void validateHeaders() {
         if (headerNames.isEmpty()) {
-            throw new IllegalArgumentException("Additional headers enabled, but no headers configured");
+            throw NO_HEADERS;
+        }
+    }
+
+    /**
+     * Thrown for every message whose headers cannot be prepended to the payload. It is created once per configured header,
+     * without a stack trace, and thrown again for each rejected message.
+     */
+    static final class InvalidHeadersException extends RuntimeException {
+
+        InvalidHeadersException(String message) {
+            super(message, null, false, false);
         }
     }
 }
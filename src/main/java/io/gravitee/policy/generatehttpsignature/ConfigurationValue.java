@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import io.gravitee.el.TemplateEngine;
+import io.reactivex.rxjava3.core.Maybe;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Configuration value supporting EL, checked once when the policy is created.
+ * <p>
+ * A value without any <code>{#...}</code> expression is a literal: it is returned as it is, without evaluating it
+ * with the template engine. Expressions are evaluated on each resolution, the template engine keeping them parsed.
+ *
+ * @author GraviteeSource Team
+ */
+final class ConfigurationValue {
+
+    private static final String EXPRESSION_PREFIX = "{#";
+
+    /**
+     * A single secret manager lookup with literal arguments, which does not depend on the execution context.
+     */
+    private static final Pattern SECRET_LOOKUP = Pattern.compile("\\{#secrets\\.get\\(\\s*'[^']*'\\s*(,\\s*'[^']*'\\s*)?\\)}");
+
+    private final String value;
+    private final Maybe<String> literal;
+
+    private ConfigurationValue(String value, Maybe<String> literal) {
+        this.value = value;
+        this.literal = literal;
+    }
+
+    static ConfigurationValue of(String value) {
+        if (value == null) {
+            return new ConfigurationValue(null, Maybe.empty());
+        }
+        if (!value.contains(EXPRESSION_PREFIX)) {
+            return new ConfigurationValue(value, Maybe.just(value));
+        }
+        return new ConfigurationValue(value, null);
+    }
+
+    boolean isLiteral() {
+        return literal != null;
+    }
+
+    /**
+     * @return the value when it is a literal, <code>null</code> otherwise
+     */
+    String literal() {
+        return literal != null ? value : null;
+    }
+
+    /**
+     * @return whether the value is a secret manager lookup, resolving to the same secret whatever the execution context
+     */
+    boolean isSecretLookup() {
+        return value != null && SECRET_LOOKUP.matcher(value).matches();
+    }
+
+    /**
+     * @param templateEngine the template engine to evaluate the value with, only requested for expressions
+     * @return the literal value, or the result of the expression evaluation
+     */
+    Maybe<String> resolve(Supplier<TemplateEngine> templateEngine) {
+        if (literal != null) {
+            return literal;
+        }
+        return templateEngine.get().eval(value, String.class);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
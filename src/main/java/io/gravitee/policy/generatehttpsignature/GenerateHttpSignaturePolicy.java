@@ -16,29 +16,44 @@
 package io.gravitee.policy.generatehttpsignature;
 
 import io.gravitee.el.TemplateEngine;
+import io.gravitee.gateway.api.buffer.Buffer;
 import io.gravitee.gateway.api.http.HttpHeaderNames;
 import io.gravitee.gateway.api.http.HttpHeaders;
 import io.gravitee.gateway.reactive.api.ExecutionFailure;
+import io.gravitee.gateway.reactive.api.context.ContextAttributes;
 import io.gravitee.gateway.reactive.api.context.http.HttpBaseExecutionContext;
 import io.gravitee.gateway.reactive.api.context.http.HttpMessageExecutionContext;
 import io.gravitee.gateway.reactive.api.context.http.HttpPlainExecutionContext;
 import io.gravitee.gateway.reactive.api.message.Message;
 import io.gravitee.gateway.reactive.api.policy.http.HttpPolicy;
 import io.gravitee.policy.generatehttpsignature.configuration.GenerateHttpSignaturePolicyConfiguration;
-import io.gravitee.policy.generatehttpsignature.configuration.HttpSignatureScheme;
+import io.gravitee.policy.generatehttpsignature.configuration.SigningExecution;
 import io.gravitee.policy.generatehttpsignature.v3.GenerateHttpSignaturePolicyV3;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
 import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
 import io.reactivex.rxjava3.core.Maybe;
+import io.vertx.micrometer.backends.BackendRegistries;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.crypto.Mac;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tomitribe.auth.signatures.EnginePoolExhaustedException;
 import org.tomitribe.auth.signatures.Signature;
+import org.tomitribe.auth.signatures.SignatureEnginePool;
 import org.tomitribe.auth.signatures.Signer;
+import org.tomitribe.auth.signatures.SigningStringSink;
 
 /**
  * @author Brent HUNTER (brent.hunter at graviteesource.com)
@@ -48,11 +63,82 @@ public class GenerateHttpSignaturePolicy extends GenerateHttpSignaturePolicyV3 i
 
     private static final Logger logger = LoggerFactory.getLogger(GenerateHttpSignaturePolicy.class);
 
+    static final String HTTP_SIGNATURE_GENERATION_REJECTED = "HTTP_SIGNATURE_GENERATION_REJECTED";
+    static final int DEFAULT_SIGNING_QUEUE_SIZE = 1024;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final AtomicBoolean NO_METER_REGISTRY_LOGGED = new AtomicBoolean();
+
+    /**
+     * Variable of the template context giving access to the secret manager.
+     */
+    private static final String SECRETS_VARIABLE = "secrets";
+
+    /**
+     * Request header announcing, with the <code>trailers</code> value, that the client reads the trailers of the response.
+     */
+    private static final String TE = "TE";
+    private static final String TRAILERS = "trailers";
+
+    /**
+     * Signed header name of the <code>Content-Length</code>, as signed headers are lowercased.
+     */
+    private static final String CONTENT_LENGTH = "content-length";
+
     private final AdditionalHeadersProcessor headersProcessor;
+    private final SignerCache signerCache;
+    private final SigningPlan plan;
+    private final ConfigurationValue keyIdValue;
+    private final ConfigurationValue secretValue;
+    private final byte[] literalSecretDigest;
+    private final TemplateEngine keyIdTemplateEngine;
+    private final SecretCache secretCache;
+    private final int messageSigningConcurrency;
+    private final boolean signOnWorkers;
+    private final boolean signMessagesOnWorkers;
+    private final Resources resources;
+    private final Cleaner.Cleanable cleanable;
+    private final RequiredHeaders requiredHeaders;
+    private final boolean signsContentLength;
+    private final LogThrottle missingHeadersLog = new LogThrottle();
+    private final LogThrottle invalidHeadersLog = new LogThrottle();
 
     public GenerateHttpSignaturePolicy(GenerateHttpSignaturePolicyConfiguration configuration) {
         super(configuration);
         this.headersProcessor = new AdditionalHeadersProcessor(configuration);
+        this.signerCache = new SignerCache();
+        this.plan = SigningPlan.compile(configuration);
+        this.keyIdValue = ConfigurationValue.of(configuration.keyId());
+        this.secretValue = ConfigurationValue.of(configuration.secret());
+        // A literal secret is hashed once for the signer cache keys, instead of on each signature
+        this.literalSecretDigest = secretValue.literal() != null ? SignerCache.digest(secretValue.literal()) : null;
+        // The key id is not evaluated against the execution context, a single template engine is enough for all requests
+        this.keyIdTemplateEngine = keyIdValue.isLiteral() ? null : TemplateEngine.templateEngine();
+        this.secretCache =
+            configuration.secretCacheTtl() > 0 && secretValue.isSecretLookup()
+                ? new SecretCache(Duration.ofSeconds(configuration.secretCacheTtl()))
+                : null;
+        this.messageSigningConcurrency =
+            configuration.messageSigningConcurrency() > 0
+                ? configuration.messageSigningConcurrency()
+                : Runtime.getRuntime().availableProcessors();
+        // Messages signed in parallel are signed on the same workers as with the WORKER execution
+        this.signOnWorkers = configuration.signingExecution() == SigningExecution.WORKER;
+        this.signMessagesOnWorkers = signOnWorkers || configuration.parallelMessageSigning();
+        this.resources = new Resources(
+            configuration.algorithm() != null ? configuration.algorithm().name() : null,
+            // Only asymmetric signers pool signature engines
+            configuration.algorithm() != null && !Mac.class.equals(configuration.algorithm().getAlg().getType())
+                ? signerCache::enginePools
+                : null,
+            configuration.signingWorkers() > 0 ? configuration.signingWorkers() : Runtime.getRuntime().availableProcessors(),
+            configuration.signingQueueSize() > 0 ? configuration.signingQueueSize() : DEFAULT_SIGNING_QUEUE_SIZE,
+            configuration.metricsHistograms()
+        );
+        this.cleanable = CLEANER.register(this, resources);
+        this.requiredHeaders = new RequiredHeaders(ERROR_MESSAGE, plan.requiredHeaders());
+        // A streamed response loses its Content-Length, see handleResponseStreaming
+        this.signsContentLength = plan.signedHeaders().contains(CONTENT_LENGTH);
     }
 
     @Override
@@ -65,16 +151,11 @@ public class GenerateHttpSignaturePolicy extends GenerateHttpSignaturePolicyV3 i
     // ==========================
     @Override
     public Completable onRequest(HttpPlainExecutionContext ctx) {
-        List<String> configuredHeaders = new ArrayList<>(Optional.ofNullable(configuration.headers()).orElseGet(List::of));
-
         if (configuration.signHeaders()) {
-            final String checkHeadersErrorMessage = checkHeaders(ctx.request().headers(), configuredHeaders);
+            final String checkHeadersErrorMessage = requiredHeaders.check(ctx.request().headers());
             if (checkHeadersErrorMessage != null) {
-                logger.warn(checkHeadersErrorMessage);
-                return interrupt(
-                    ctx,
-                    new ExecutionFailure(400).key(HTTP_SIGNATURE_IMPOSSIBLE_GENERATION).message(checkHeadersErrorMessage)
-                );
+                warn(missingHeadersLog, "{}", checkHeadersErrorMessage);
+                return interrupt(ctx, failure(ctx, 400, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, checkHeadersErrorMessage));
             }
         }
 
@@ -82,22 +163,34 @@ public class GenerateHttpSignaturePolicy extends GenerateHttpSignaturePolicyV3 i
             return ctx
                 .request()
                 .body()
-                .flatMapCompletable(body -> handleRequestKeyIdResolution(ctx, configuredHeaders, body.toString()))
+                .flatMapCompletable(body -> handleRequestKeyIdResolution(ctx, body))
                 .onErrorResumeNext(th -> {
                     logger.error("Http signature generation failed (HTTP request)", th);
-                    return interrupt(
-                        ctx,
-                        new ExecutionFailure(500).key(HTTP_SIGNATURE_IMPOSSIBLE_GENERATION).message("Webhook signature generation failed")
-                    );
+                    return interrupt(ctx, failure(ctx, 500, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, "Webhook signature generation failed"));
                 });
         }
 
-        return handleRequestKeyIdResolution(ctx, configuredHeaders, "").onErrorResumeNext(th -> {
-            logger.error("Signature generation failed (HTTP request)", th);
-            return interrupt(
+        final String secret = staticSecret(ctx);
+        if (secret != null) {
+            // Nothing left to resolve: sign inline, without assembling a reactive chain
+            return generateSignature(
                 ctx,
-                new ExecutionFailure(500).key(HTTP_SIGNATURE_IMPOSSIBLE_GENERATION).message("Signature generation failed")
+                signingExecutor(),
+                System.nanoTime(),
+                keyIdValue.literal(),
+                secret,
+                null,
+                ctx.request().timestamp(),
+                ctx.request().headers()::get,
+                ctx.request().headers(),
+                ctx::setAttribute,
+                GenerateHttpSignaturePolicy::interrupt
             );
+        }
+
+        return handleRequestKeyIdResolution(ctx, null).onErrorResumeNext(th -> {
+            logger.error("Signature generation failed (HTTP request)", th);
+            return interrupt(ctx, failure(ctx, 500, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, "Signature generation failed"));
         });
     }
 
@@ -106,17 +199,46 @@ public class GenerateHttpSignaturePolicy extends GenerateHttpSignaturePolicyV3 i
     // ==========================
     @Override
     public Completable onResponse(HttpPlainExecutionContext ctx) {
-        List<String> configuredHeaders = new ArrayList<>(Optional.ofNullable(configuration.headers()).orElseGet(List::of));
-
         if (configuration.signHeaders()) {
-            final String checkHeadersErrorMessage = checkHeaders(ctx.response().headers(), configuredHeaders);
+            final String checkHeadersErrorMessage = requiredHeaders.check(ctx.response().headers());
             if (checkHeadersErrorMessage != null) {
-                logger.warn(checkHeadersErrorMessage);
-                return interrupt(
+                warn(missingHeadersLog, "{}", checkHeadersErrorMessage);
+                return interrupt(ctx, failure(ctx, 500, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, checkHeadersErrorMessage));
+            }
+        }
+
+        if (!configuration.signPayload() && configuration.signResponseHeadersOnly()) {
+            // Header-only signature: the body is left untouched so that the response keeps streaming
+            final String secret = staticSecret(ctx);
+            if (secret != null) {
+                return generateSignature(
                     ctx,
-                    new ExecutionFailure(500).key(HTTP_SIGNATURE_IMPOSSIBLE_GENERATION).message(checkHeadersErrorMessage)
+                    signingExecutor(),
+                    System.nanoTime(),
+                    keyIdValue.literal(),
+                    secret,
+                    null,
+                    ctx.request().timestamp(),
+                    ctx.response().headers()::get,
+                    ctx.response().headers(),
+                    ctx::setAttribute,
+                    GenerateHttpSignaturePolicy::interrupt
                 );
             }
+            return handleResponseKeyIDResolution(
+                ctx,
+                null,
+                ctx.response().headers()::get,
+                ctx.response().headers(),
+                GenerateHttpSignaturePolicy::interrupt
+            ).onErrorResumeNext(th -> {
+                logger.error("Signature generation failed (HTTP response)", th);
+                return interrupt(ctx, failure(ctx, 500, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, "Signature generation failed"));
+            });
+        }
+
+        if (configuration.streamResponsePayload() && acceptsTrailers(ctx) && !signsContentLength) {
+            return handleResponseStreaming(ctx);
         }
 
         return ctx
@@ -125,8 +247,7 @@ public class GenerateHttpSignaturePolicy extends GenerateHttpSignaturePolicyV3 i
             .flatMapCompletable(buffer ->
                 handleResponseKeyIDResolution(
                     ctx,
-                    configuredHeaders,
-                    buffer.toString(),
+                    buffer,
                     ctx.response().headers()::get,
                     ctx.response().headers(),
                     GenerateHttpSignaturePolicy::interrupt
@@ -134,86 +255,183 @@ public class GenerateHttpSignaturePolicy extends GenerateHttpSignaturePolicyV3 i
             )
             .onErrorResumeNext(th -> {
                 logger.error("Http signature generation failed (HTTP response)", th);
-                return interrupt(
-                    ctx,
-                    new ExecutionFailure(500).key(HTTP_SIGNATURE_IMPOSSIBLE_GENERATION).message("Webhook signature generation failed")
-                );
+                return interrupt(ctx, failure(ctx, 500, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, "Webhook signature generation failed"));
+            });
+    }
+
+    /**
+     * Sign the response payload chunk by chunk as it flows, so that it is never aggregated in memory.
+     * The response headers are already sent when the payload is complete, so the signature is sent in a trailer,
+     * announced by the <code>Trailer</code> header. This is only done for the clients reading trailers, see {@link #acceptsTrailers}.
+     * <p>
+     * HTTP/1.1 only carries trailers with the chunked transfer coding, so the <code>Content-Length</code> of the upstream response
+     * is removed, or the trailer would be silently dropped. Responses signing their <code>Content-Length</code> are buffered instead.
+     */
+    private Completable handleResponseStreaming(HttpPlainExecutionContext ctx) {
+        final HttpHeaders headers = ctx.response().headers();
+        final String payloadPrefix;
+        try {
+            payloadPrefix = additionalHeadersPrefix(headers::get);
+        } catch (AdditionalHeadersProcessor.InvalidHeadersException e) {
+            warn(invalidHeadersLog, "Invalid additional headers configuration: {}", e.getMessage());
+            return interrupt(ctx, failure(ctx, 500, HTTP_SIGNATURE_ADDITIONAL_HEADERS_NOT_VALID, e.getMessage()));
+        }
+
+        final SigningCost cost = new SigningCost();
+        return resolveKeyId()
+            .flatMap(keyId -> {
+                final long start = System.nanoTime();
+                return resolveSecret(ctx).map(secret -> {
+                    meters(ctx).resolved(System.nanoTime() - start);
+                    return signer(keyId, secret, ctx.request().timestamp(), configuration.signHeaders(), cost);
+                });
+            })
+            .flatMapCompletable(signer -> {
+                headers.remove(HttpHeaderNames.CONTENT_LENGTH);
+                headers.add(HttpHeaderNames.TRAILER, plan.targetHeader());
+                return ctx.response().onChunks(chunks -> signChunks(ctx, signer, cost, payloadPrefix, chunks));
+            })
+            .onErrorResumeNext(th -> {
+                logger.error("Http signature generation failed (HTTP response)", th);
+                return interrupt(ctx, failure(ctx, 500, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, "Signature generation failed"));
             });
     }
 
+    /**
+     * Most HTTP/1.1 clients and intermediaries drop trailers, a signature sent in a trailer would be silently lost for them.
+     * Only the clients announcing that they read trailers, with <code>TE: trailers</code>, get a streamed response.
+     */
+    private static boolean acceptsTrailers(HttpPlainExecutionContext ctx) {
+        final List<String> values = ctx.request().headers().getAll(TE);
+        if (values == null) {
+            return false;
+        }
+        for (String value : values) {
+            for (String coding : value.split(",")) {
+                final int parameters = coding.indexOf(';');
+                if ((parameters < 0 ? coding : coding.substring(0, parameters)).trim().equalsIgnoreCase(TRAILERS)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private Flowable<Buffer> signChunks(
+        HttpPlainExecutionContext ctx,
+        Signer signer,
+        SigningCost cost,
+        String payloadPrefix,
+        Flowable<Buffer> chunks
+    ) {
+        return Flowable.defer(() -> {
+            final long start = System.nanoTime();
+            final long[] payloadBytes = { SigningStringSink.utf8Length(payloadPrefix) };
+            final Signer.Session session = signer.newSession();
+            session.payload().write(payloadPrefix);
+            return chunks
+                .doOnNext(chunk -> {
+                    payloadBytes[0] += chunk.length();
+                    writeBuffer(session.payload(), chunk);
+                })
+                .doOnComplete(() -> {
+                    // The payload is hashed as it flows, only the signature of the complete message is timed as the signing phase
+                    final long signingStart = System.nanoTime();
+                    final Signature signature = session.sign(method(ctx), uri(ctx), ctx.response().headers()::getAll);
+                    final long headerStart = System.nanoTime();
+                    setSignatureHeader(ctx.response().trailers(), signature);
+                    final long end = System.nanoTime();
+                    meters(ctx).signed(end - start, headerStart - signingStart, end - headerStart, payloadBytes[0]);
+                    cost.attach(ctx::setAttribute, end - start, payloadBytes[0]);
+                })
+                .doOnError(th -> {
+                    logger.error("Http signature generation failed (HTTP response stream)", th);
+                    session.abort();
+                })
+                .doOnCancel(session::abort);
+        });
+    }
+
     // ==========================
     // HTTP MESSAGE RESPONSE
     // ==========================
     @Override
     public Completable onMessageResponse(HttpMessageExecutionContext ctx) {
+        if (configuration.parallelMessageSigning()) {
+            return ctx.response().onMessages(messages -> signMessagesInParallel(ctx, messages));
+        }
         return ctx.response().onMessage(message -> handleMessageKeyIdResolution(ctx, message));
     }
 
-    private Maybe<Message> handleMessageKeyIdResolution(HttpMessageExecutionContext ctx, Message message) {
-        List<String> configuredHeaders = new ArrayList<>(Optional.ofNullable(configuration.headers()).orElseGet(List::of));
+    /**
+     * Sign up to {@link #messageSigningConcurrency} messages at the same time on the signing workers, see {@link SigningExecutor}.
+     * Each signature is set back on the event loop the message was received on, and signed messages are still emitted in their
+     * original order.
+     */
+    private Flowable<Message> signMessagesInParallel(HttpMessageExecutionContext ctx, Flowable<Message> messages) {
+        return messages.concatMapEager(message -> handleMessageKeyIdResolution(ctx, message).toFlowable(), messageSigningConcurrency, 1);
+    }
 
+    private Maybe<Message> handleMessageKeyIdResolution(HttpMessageExecutionContext ctx, Message message) {
         if (configuration.signHeaders()) {
-            final String checkHeadersErrorMessage = checkHeaders(message.headers(), configuredHeaders);
+            final String checkHeadersErrorMessage = requiredHeaders.check(message.headers());
             if (checkHeadersErrorMessage != null) {
-                logger.error("Signature generation failed (Message response)");
-                new ExecutionFailure(500).key(HTTP_SIGNATURE_IMPOSSIBLE_GENERATION).message(checkHeadersErrorMessage);
+                warn(missingHeadersLog, "{}", checkHeadersErrorMessage);
+                return ctx.interruptMessageWith(failure(ctx, 500, HTTP_SIGNATURE_IMPOSSIBLE_GENERATION, checkHeadersErrorMessage));
             }
         }
-        return resolveKeyId(TemplateEngine.templateEngine())
-            .flatMapCompletable(keyId -> handleMessageSignature(ctx, configuredHeaders, keyId, message))
+        return resolveKeyId()
+            .flatMapCompletable(keyId -> handleMessageSignature(ctx, keyId, message))
             .andThen(Maybe.just(message));
     }
 
-    private Completable handleRequestKeyIdResolution(HttpPlainExecutionContext ctx, List<String> configuredHeaders, String payload) {
-        return resolveKeyId(TemplateEngine.templateEngine()).flatMapCompletable(keyId ->
+    private Completable handleRequestKeyIdResolution(HttpPlainExecutionContext ctx, Buffer payload) {
+        return resolveKeyId().flatMapCompletable(keyId ->
             handleSignatureGeneration(
                 ctx,
-                configuredHeaders,
+                signingExecutor(),
                 keyId,
                 payload,
                 ctx.request().timestamp(),
                 ctx.request().headers()::get,
                 ctx.request().headers(),
+                ctx::setAttribute,
                 GenerateHttpSignaturePolicy::interrupt
             )
         );
     }
 
-    private <T extends HttpBaseExecutionContext> Completable handleMessageSignature(
-        HttpMessageExecutionContext ctx,
-        List<String> configuredHeaders,
-        String keyId,
-        Message message
-    ) {
+    private Completable handleMessageSignature(HttpMessageExecutionContext ctx, String keyId, Message message) {
         return handleSignatureGeneration(
             ctx,
-            configuredHeaders,
+            messageSigningExecutor(),
             keyId,
-            message.content().toString(),
+            message.content(),
             message.timestamp(),
             message.headers()::get,
             message.headers(),
+            message::attribute,
             (c, failure) -> c.interruptMessageWith(failure).ignoreElement()
         );
     }
 
     private <T extends HttpBaseExecutionContext> Completable handleResponseKeyIDResolution(
         T ctx,
-        List<String> configuredHeaders,
-        String payload,
+        Buffer payload,
         Function<String, String> headerGetter,
         HttpHeaders targetHeaders,
         BiFunction<T, ExecutionFailure, Completable> interrupt
     ) {
-        return resolveKeyId(TemplateEngine.templateEngine()).flatMapCompletable(keyId ->
+        return resolveKeyId().flatMapCompletable(keyId ->
             handleSignatureGeneration(
                 ctx,
-                configuredHeaders,
+                signingExecutor(),
                 keyId,
                 payload,
                 ctx.request().timestamp(),
                 headerGetter,
                 targetHeaders,
+                ctx::setAttribute,
                 interrupt
             )
         );
@@ -221,118 +439,433 @@ public class GenerateHttpSignaturePolicy extends GenerateHttpSignaturePolicyV3 i
 
     private <T extends HttpBaseExecutionContext> Completable handleSignatureGeneration(
         T ctx,
-        List<String> configuredHeaders,
+        SigningExecutor executor,
         String keyId,
-        String payload,
+        Buffer payload,
         Long timestamp,
         Function<String, String> headerGetter,
         HttpHeaders headers,
+        BiConsumer<String, Object> attributes,
         BiFunction<T, ExecutionFailure, Completable> interrupt
     ) {
-        return resolveSecret(ctx.getTemplateEngine())
+        final long start = System.nanoTime();
+        return resolveSecret(ctx)
             .flatMapCompletable(secret -> {
-                String processedPayload;
-                try {
-                    processedPayload = processAdditionalHeaders(payload, headerGetter);
-                } catch (IllegalArgumentException e) {
-                    logger.warn("Invalid additional headers configuration: {}", e.getMessage());
-                    return interrupt.apply(
-                        ctx,
-                        new ExecutionFailure(500).key(HTTP_SIGNATURE_ADDITIONAL_HEADERS_NOT_VALID).message(e.getMessage())
-                    );
-                }
-                generateAndSetSignature(
-                    configuredHeaders,
+                meters(ctx).resolved(System.nanoTime() - start);
+                return generateSignature(
+                    ctx,
+                    executor,
+                    start,
                     keyId,
                     secret,
-                    processedPayload,
-                    headers,
+                    payload,
                     timestamp,
-                    configuration.signMethod() ? ctx.request().method().name().toLowerCase() : "",
-                    configuration.signUri() ? ctx.request().uri() : "",
-                    configuration.signHeaders()
+                    headerGetter,
+                    headers,
+                    attributes,
+                    interrupt
                 );
-
-                return Completable.complete();
             })
-            .onErrorResumeNext(err -> {
-                logger.error("Http signature generation failed", err);
-                return interrupt.apply(
-                    ctx,
-                    new ExecutionFailure(500)
-                        .key(HTTP_SIGNATURE_IMPOSSIBLE_GENERATION)
-                        .message(err.getMessage() != null ? err.getMessage() : "Http signature generation failed")
+            .onErrorResumeNext(err -> signatureFailure(ctx, err, interrupt));
+    }
+
+    /**
+     * Generate the signature and set it on the given headers once the key id and secret are resolved.
+     * Failures interrupt the execution, so the returned {@link Completable} never errors.
+     *
+     * @param executor the workers computing the signature, or <code>null</code> to compute it inline
+     * @param start the {@link System#nanoTime()} at which the signature was requested, before the secret was resolved
+     * @param attributes sets the attributes reporting the {@link SigningCost} on the context or the message being signed
+     */
+    private <T extends HttpBaseExecutionContext> Completable generateSignature(
+        T ctx,
+        SigningExecutor executor,
+        long start,
+        String keyId,
+        String secret,
+        Buffer payload,
+        Long timestamp,
+        Function<String, String> headerGetter,
+        HttpHeaders headers,
+        BiConsumer<String, Object> attributes,
+        BiFunction<T, ExecutionFailure, Completable> interrupt
+    ) {
+        String payloadPrefix;
+        try {
+            payloadPrefix = additionalHeadersPrefix(headerGetter);
+        } catch (AdditionalHeadersProcessor.InvalidHeadersException e) {
+            warn(invalidHeadersLog, "Invalid additional headers configuration: {}", e.getMessage());
+            return interrupt.apply(ctx, failure(ctx, 500, HTTP_SIGNATURE_ADDITIONAL_HEADERS_NOT_VALID, e.getMessage()));
+        }
+        final SigningMetrics.Meters meters = meters(ctx);
+        if (executor != null) {
+            final String method = method(ctx);
+            final String uri = uri(ctx);
+            // Only the signature is computed on a worker, it is set back on the context the execution is running on
+            return executor
+                .submit(() -> sign(keyId, secret, payloadPrefix, payload, headers, timestamp, method, uri, configuration.signHeaders()))
+                .doOnSuccess(signed -> setSignature(meters, attributes, start, payloadPrefix, payload, headers, signed))
+                .ignoreElement()
+                .onErrorResumeNext(err ->
+                    err instanceof SigningExecutor.RejectedSigningException || err instanceof EnginePoolExhaustedException
+                        ? signatureRejected(ctx, err, interrupt)
+                        : signatureFailure(ctx, err, interrupt)
                 );
-            });
+        }
+        try {
+            final Signed signed = sign(
+                keyId,
+                secret,
+                payloadPrefix,
+                payload,
+                headers,
+                timestamp,
+                method(ctx),
+                uri(ctx),
+                configuration.signHeaders()
+            );
+            setSignature(meters, attributes, start, payloadPrefix, payload, headers, signed);
+        } catch (EnginePoolExhaustedException err) {
+            return signatureRejected(ctx, err, interrupt);
+        } catch (Exception err) {
+            return signatureFailure(ctx, err, interrupt);
+        }
+        return Completable.complete();
     }
 
-    private void generateAndSetSignature(
-        List<String> configuredHeaders,
+    private <T extends HttpBaseExecutionContext> Completable signatureRejected(
+        T ctx,
+        Throwable err,
+        BiFunction<T, ExecutionFailure, Completable> interrupt
+    ) {
+        logger.warn("Http signature generation rejected: {}", err.getMessage());
+        return interrupt.apply(ctx, failure(ctx, 503, HTTP_SIGNATURE_GENERATION_REJECTED, err.getMessage()));
+    }
+
+    private <T extends HttpBaseExecutionContext> Completable signatureFailure(
+        T ctx,
+        Throwable err,
+        BiFunction<T, ExecutionFailure, Completable> interrupt
+    ) {
+        logger.error("Http signature generation failed", err);
+        return interrupt.apply(
+            ctx,
+            failure(
+                ctx,
+                500,
+                HTTP_SIGNATURE_IMPOSSIBLE_GENERATION,
+                err.getMessage() != null ? err.getMessage() : "Http signature generation failed"
+            )
+        );
+    }
+
+    /**
+     * Compute the signature, without touching the execution context, so that it can run on a signing worker.
+     */
+    private Signed sign(
         String keyId,
         String secret,
-        String payload,
+        String payloadPrefix,
+        Buffer payload,
         HttpHeaders headers,
         Long timestamp,
         String method,
         String uri,
         boolean signHeaders
     ) throws IOException {
-        if (configuration.created()) {
-            configuredHeaders.add("(created)");
-        }
-        if (configuration.expires()) {
-            configuredHeaders.add("(expires)");
-        }
-        Signature signatureFromConfiguration = super.buildSignatureFromConfiguration(
-            () -> keyId,
-            configuredHeaders,
-            () -> timestamp,
-            signHeaders
-        );
-        Signer signer = super.buildSigner(signatureFromConfiguration, () -> secret);
+        final long signingStart = System.nanoTime();
+        final SigningCost cost = new SigningCost();
+        Signer signer = signer(keyId, secret, timestamp, signHeaders, cost);
         logger.debug("Method and URI: {} {}", method, uri);
-        Signature signature = signer.signWithPayload(method, uri, headers.toSingleValueMap(), payload);
-        setSignatureHeader(headers, configuration.targetSignatureHeader(), signature);
+        Signature signature = signer.signWithPayload(method, uri, headers::getAll, sink -> writePayload(sink, payloadPrefix, payload));
+        return new Signed(signature, cost, System.nanoTime() - signingStart);
     }
 
-    private <T extends HttpBaseExecutionContext> void setSignatureHeader(
+    /**
+     * Set the computed signature on the headers, and report its cost.
+     */
+    private void setSignature(
+        SigningMetrics.Meters meters,
+        BiConsumer<String, Object> attributes,
+        long start,
+        String payloadPrefix,
+        Buffer payload,
         HttpHeaders headers,
-        String targetSignatureHeader,
-        Signature signature
+        Signed signed
     ) {
-        if (HttpSignatureScheme.SIGNATURE.equals(configuration.scheme())) {
-            final String substring = signature.toString().substring(10); // Remove the "Signature " part of the signature
-            headers.set("Signature", substring);
-        } else if (HttpSignatureScheme.AUTHORIZATION.equals(configuration.scheme())) {
-            headers.set(HttpHeaderNames.AUTHORIZATION, signature.toString());
-        } else {
-            headers.set(targetSignatureHeader, signature.toString().substring(10));
-        }
+        final long headerStart = System.nanoTime();
+        setSignatureHeader(headers, signed.signature());
+        final long end = System.nanoTime();
+        final long payloadBytes = SigningStringSink.utf8Length(payloadPrefix) + (payload != null ? payload.length() : 0);
+        meters.signed(end - start, signed.signingNanos(), end - headerStart, payloadBytes);
+        signed.cost().attach(attributes, end - start, payloadBytes);
+    }
+
+    private Signer signer(String keyId, String secret, Long timestamp, boolean signHeaders, SigningCost cost) {
+        final byte[] secretDigest = secret == secretValue.literal() ? literalSecretDigest : SignerCache.digest(secret);
+        return signerCache.get(keyId, secretDigest, plan.algorithm(), () -> {
+            cost.signerBuilt();
+            return super.buildSigner(
+                super.buildSignatureFromConfiguration(() -> keyId, plan.signedHeaders(), () -> timestamp, signHeaders),
+                () -> secret
+            );
+        });
+    }
+
+    private void setSignatureHeader(HttpHeaders headers, Signature signature) {
+        headers.set(plan.targetHeader(), plan.stripSchemePrefix() ? signature.toParamString() : signature.toString());
     }
 
     // ==========================
     // HELPERS
     // ==========================
-    private Maybe<String> resolveSecret(TemplateEngine templateEngine) {
-        return templateEngine
-            .eval(configuration.secret(), String.class)
-            .switchIfEmpty(Maybe.error(new IllegalStateException("Secret could not be resolved")));
+    private Maybe<String> resolveSecret(HttpBaseExecutionContext ctx) {
+        final Maybe<String> secret = secretCache != null
+            ? secretCache.get(secretValue.toString(), secretLoader(ctx))
+            : secretValue.resolve(ctx::getTemplateEngine);
+        return secret.switchIfEmpty(Maybe.error(new IllegalStateException("Secret could not be resolved")));
+    }
+
+    /**
+     * @return the secret when it is known without any asynchronous resolution, along with a literal key id, <code>null</code> otherwise
+     */
+    private String staticSecret(HttpBaseExecutionContext ctx) {
+        if (!keyIdValue.isLiteral()) {
+            return null;
+        }
+        if (secretValue.isLiteral()) {
+            return secretValue.literal();
+        }
+        if (secretCache != null) {
+            return secretCache.getIfPresent(secretValue.toString(), secretLoader(ctx));
+        }
+        return null;
     }
 
-    private Maybe<String> resolveKeyId(TemplateEngine templateEngine) {
-        return templateEngine
-            .eval(configuration.keyId(), String.class)
+    /**
+     * The cache only calls the loader of the request which misses the secret or starts its refresh, so each load goes through the
+     * secret manager of the current request. Only the resolved value is cached, never a request nor its template engine.
+     *
+     * @return the loader of the cached secret, capturing the secret manager of the given request when the cache calls it
+     */
+    private Supplier<Maybe<String>> secretLoader(HttpBaseExecutionContext ctx) {
+        return () -> {
+            final TemplateEngine templateEngine = secretTemplateEngine(ctx);
+            return Maybe.defer(() -> secretValue.resolve(() -> templateEngine));
+        };
+    }
+
+    /**
+     * A cached secret lookup does not depend on the execution context, but its refresh may complete after the request that
+     * started it is over. It is evaluated with a template engine of its own, only sharing the secret manager of that request.
+     *
+     * @return a template engine evaluating the secret lookup independently of the execution context
+     */
+    TemplateEngine secretTemplateEngine(HttpBaseExecutionContext ctx) {
+        final TemplateEngine templateEngine = TemplateEngine.templateEngine();
+        templateEngine
+            .getTemplateContext()
+            .setVariable(SECRETS_VARIABLE, ctx.getTemplateEngine().getTemplateContext().lookupVariable(SECRETS_VARIABLE));
+        return templateEngine;
+    }
+
+    /**
+     * @return the workers signing requests and responses, or <code>null</code> when they are signed inline
+     */
+    private SigningExecutor signingExecutor() {
+        return signOnWorkers ? resources.signingExecutor() : null;
+    }
+
+    /**
+     * @return the workers signing messages, or <code>null</code> when they are signed inline
+     */
+    private SigningExecutor messageSigningExecutor() {
+        return signMessagesOnWorkers ? resources.signingExecutor() : null;
+    }
+
+    private Maybe<String> resolveKeyId() {
+        return keyIdValue
+            .resolve(() -> keyIdTemplateEngine)
             .switchIfEmpty(Maybe.error(new IllegalStateException("KeyId could not be resolved")));
     }
 
-    private String processAdditionalHeaders(String payload, Function<String, String> headerGetter) {
+    private String method(HttpBaseExecutionContext ctx) {
+        return plan.signsRequestTarget() && configuration.signMethod() ? ctx.request().method().name().toLowerCase() : "";
+    }
+
+    private String uri(HttpBaseExecutionContext ctx) {
+        return plan.signsRequestTarget() && configuration.signUri() ? ctx.request().uri() : "";
+    }
+
+    private String additionalHeadersPrefix(Function<String, String> headerGetter) {
         if (!configuration.prependHeadersToBody()) {
-            return payload;
+            return "";
+        }
+        return headersProcessor.prefix(headerGetter);
+    }
+
+    /**
+     * Write the payload straight from the buffer views, so that it is neither copied nor decoded,
+     * and binary payloads are signed as they are sent.
+     */
+    private static void writePayload(SigningStringSink sink, String prefix, Buffer payload) {
+        sink.write(prefix);
+        if (payload != null) {
+            writeBuffer(sink, payload);
         }
-        return headersProcessor.processHeaders(payload, headerGetter);
+    }
+
+    private static void writeBuffer(SigningStringSink sink, Buffer payload) {
+        final ByteBuf bytes = payload.getNativeBuffer();
+        if (bytes.nioBufferCount() > 0) {
+            for (ByteBuffer view : bytes.nioBuffers(bytes.readerIndex(), bytes.readableBytes())) {
+                sink.write(view);
+            }
+        } else {
+            final byte[] copy = payload.getBytes();
+            sink.write(copy, 0, copy.length);
+        }
+    }
+
+    private SigningMetrics.Meters meters(HttpBaseExecutionContext ctx) {
+        return resources.metrics().forApi(ctx.getAttribute(ContextAttributes.ATTR_API));
+    }
+
+    /**
+     * Build the execution failure interrupting the execution, and count it.
+     */
+    private ExecutionFailure failure(HttpBaseExecutionContext ctx, int statusCode, String key, String message) {
+        meters(ctx).failed(key);
+        return new ExecutionFailure(statusCode).key(key).message(message);
+    }
+
+    /**
+     * Log a warning about a rejected message, unless one of the same kind has already been logged during the current interval
+     * of the throttle. The next warning let through tells how many were held back.
+     */
+    private static void warn(LogThrottle throttle, String format, String argument) {
+        final long suppressed = throttle.acquire();
+        if (suppressed > 0) {
+            logger.warn(format + " ({} similar warnings suppressed)", argument, suppressed);
+        } else if (suppressed == 0) {
+            logger.warn(format, argument);
+        }
+    }
+
+    /**
+     * Release what the policy holds on behalf of its API right away, rather than when the policy is garbage collected.
+     */
+    void release() {
+        cleanable.clean();
+    }
+
+    SecretCache secretCache() {
+        return secretCache;
+    }
+
+    SignerCache signerCache() {
+        return signerCache;
+    }
+
+    /**
+     * The gateway publishes its metrics through the Micrometer backend of Vert.x, which is only set up when metrics are enabled.
+     * Without it, nothing is published, which is only logged once.
+     */
+    private static MeterRegistry meterRegistry() {
+        final MeterRegistry registry = BackendRegistries.getDefaultNow();
+        if (registry == null && !NO_METER_REGISTRY_LOGGED.getAndSet(true)) {
+            logger.info("No meter registry is set up for the gateway metrics, the signing metrics are not published");
+        }
+        return registry;
     }
 
     private static Completable interrupt(HttpPlainExecutionContext ctx, ExecutionFailure executionFailure) {
         return ctx.interruptWith(executionFailure);
     }
+
+    /**
+     * A computed signature, not set yet, along with the cost of computing it.
+     */
+    private record Signed(Signature signature, SigningCost cost, long signingNanos) {}
+
+    /**
+     * What the policy holds on behalf of the API it is deployed for, acquired on first use. It is released when the policy is
+     * garbage collected, once the API is undeployed or redeployed with a new policy instance. The plugin context of the gateway is
+     * shared by all the APIs and is not told which one is undeployed, so it cannot release the resources of a single API.
+     * This must not reference the policy, or it would never be collected.
+     */
+    private static final class Resources implements Runnable {
+
+        private final String algorithm;
+        private final Supplier<? extends Collection<SignatureEnginePool>> enginePools;
+        private final int signingWorkers;
+        private final int signingQueueSize;
+        private final boolean metricsHistograms;
+        private volatile SigningMetrics metrics;
+        private volatile SigningExecutor signingExecutor;
+
+        private Resources(
+            String algorithm,
+            Supplier<? extends Collection<SignatureEnginePool>> enginePools,
+            int signingWorkers,
+            int signingQueueSize,
+            boolean metricsHistograms
+        ) {
+            this.algorithm = algorithm;
+            this.enginePools = enginePools;
+            this.signingWorkers = signingWorkers;
+            this.signingQueueSize = signingQueueSize;
+            this.metricsHistograms = metricsHistograms;
+        }
+
+        /**
+         * @return the metrics, published to the meter registry of the Vert.x metrics of the gateway, looked up on first use
+         */
+        SigningMetrics metrics() {
+            SigningMetrics current = metrics;
+            if (current == null) {
+                synchronized (this) {
+                    current = metrics;
+                    if (current == null) {
+                        current = new SigningMetrics(meterRegistry(), algorithm, enginePools, metricsHistograms);
+                        metrics = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        /**
+         * @return the workers shared by the policies configured with the same bounds
+         */
+        SigningExecutor signingExecutor() {
+            SigningExecutor current = signingExecutor;
+            if (current == null) {
+                synchronized (this) {
+                    current = signingExecutor;
+                    if (current == null) {
+                        current = SigningExecutor.shared(signingWorkers, signingQueueSize);
+                        signingExecutor = current;
+                    }
+                }
+            }
+            return current;
+        }
+
+        synchronized void release() {
+            if (metrics != null) {
+                metrics.close();
+                metrics = null;
+            }
+            if (signingExecutor != null) {
+                signingExecutor.release();
+                signingExecutor = null;
+            }
+        }
+
+        @Override
+        public void run() {
+            release();
+        }
+    }
 }
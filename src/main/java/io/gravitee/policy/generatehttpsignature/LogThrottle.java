@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Let through at most one log line of a kind per interval, and count the ones held back in between,
+ * so that a flood of rejected messages does not turn into a flood of log lines.
+ *
+ * @author GraviteeSource Team
+ */
+final class LogThrottle {
+
+    static final Duration DEFAULT_INTERVAL = Duration.ofSeconds(10);
+
+    private final long intervalNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicLong nextAt;
+    private final LongAdder suppressed = new LongAdder();
+
+    LogThrottle() {
+        this(DEFAULT_INTERVAL, System::nanoTime);
+    }
+
+    LogThrottle(Duration interval, LongSupplier nanoClock) {
+        this.intervalNanos = interval.toNanos();
+        this.nanoClock = nanoClock;
+        this.nextAt = new AtomicLong(nanoClock.getAsLong());
+    }
+
+    /**
+     * @return the number of log lines held back since the last one let through, or -1 if this one must be held back too
+     */
+    long acquire() {
+        final long now = nanoClock.getAsLong();
+        final long at = nextAt.get();
+        if (now - at < 0 || !nextAt.compareAndSet(at, now + intervalNanos)) {
+            suppressed.increment();
+            return -1;
+        }
+        return suppressed.sumThenReset();
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import io.gravitee.gateway.api.http.HttpHeaderNames;
+import io.gravitee.gateway.api.http.HttpHeaders;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Check of the headers required by the configuration, compiled once when the policy is created.
+ * <p>
+ * A message missing some of the headers is rejected with the same error message as
+ * {@link io.gravitee.policy.generatehttpsignature.v3.GenerateHttpSignaturePolicyV3#checkHeaders}, but the message is rendered
+ * once per combination of missing headers, identified by a bit mask, and reused for the next rejected messages.
+ *
+ * @author GraviteeSource Team
+ */
+final class RequiredHeaders {
+
+    /**
+     * Above this number of configured headers, the messages are rendered for each rejected message rather than kept
+     * for each of the <code>2^n</code> combinations.
+     */
+    static final int MAX_CACHED_HEADERS = 8;
+
+    private final String[] names;
+    private final String missingHeadersPrefix;
+    private final String missingDateMessage;
+    private final AtomicReferenceArray<String> messages;
+
+    /**
+     * @param errorMessage the beginning of every error message
+     * @param names the headers as configured
+     */
+    RequiredHeaders(String errorMessage, List<String> names) {
+        this.names = names.toArray(String[]::new);
+        this.missingHeadersPrefix = errorMessage + " those headers are missing [";
+        this.missingDateMessage = errorMessage + " 'Date' header is missing";
+        this.messages = this.names.length <= MAX_CACHED_HEADERS ? new AtomicReferenceArray<>(1 << this.names.length) : null;
+    }
+
+    /**
+     * @param headers the headers of the message to sign
+     * @return the error message if some required headers are missing, null if they are all present
+     */
+    String check(HttpHeaders headers) {
+        if (names.length == 0) {
+            return headers.contains(HttpHeaderNames.DATE) ? null : missingDateMessage;
+        }
+        if (messages == null) {
+            return headers.containsAllKeys(List.of(names)) ? null : render(headers);
+        }
+
+        int missing = 0;
+        for (int i = 0; i < names.length; i++) {
+            if (!headers.contains(names[i])) {
+                missing |= 1 << i;
+            }
+        }
+        if (missing == 0) {
+            return null;
+        }
+        String message = messages.get(missing);
+        if (message == null) {
+            // Racing threads render the same message, any of them can be kept
+            message = render(headers);
+            messages.set(missing, message);
+        }
+        return message;
+    }
+
+    private String render(HttpHeaders headers) {
+        final StringBuilder message = new StringBuilder(missingHeadersPrefix);
+        boolean first = true;
+        for (String name : names) {
+            if (!headers.contains(name)) {
+                if (!first) {
+                    message.append(", ");
+                }
+                message.append(name);
+                first = false;
+            }
+        }
+        return message.append(']').toString();
+    }
+}
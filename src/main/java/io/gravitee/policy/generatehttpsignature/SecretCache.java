@@ -0,0 +1,196 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.core.Scheduler;
+import io.reactivex.rxjava3.schedulers.Schedulers;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Time-bounded cache of the secrets resolved from the secret manager, keyed by the expression resolving them.
+ * <p>
+ * A secret is only loaded on the request path the first time it is requested, concurrent lookups sharing the same load.
+ * Once the refresh-ahead part of its time to live has elapsed, the next lookup starts a background refresh and keeps returning
+ * the cached value. If the refresh fails, or has not completed when the time to live is over, the cached value is still served
+ * and the refresh is retried on a later lookup, up to the maximum staleness: past it, the secret is dropped and loaded again on
+ * the request path, so that a secret manager failing for a long time fails the requests rather than signing with an old secret.
+ * <p>
+ * A loader is only called on the thread of the lookup which needs it, but the secret it returns may be subscribed to after the
+ * request behind that lookup has completed: it must capture what it needs from the request when called, and not depend on its
+ * execution context afterwards. Loaders are never kept, only the secrets they resolve.
+ *
+ * @author GraviteeSource Team
+ */
+@Slf4j
+public class SecretCache {
+
+    /**
+     * Part of the time to live after which a background refresh is started.
+     */
+    static final double REFRESH_AHEAD_RATIO = 0.8;
+
+    private final long ttlNanos;
+    private final long refreshAheadNanos;
+    private final long maxAgeNanos;
+    private final Scheduler refreshScheduler;
+    private final LongSupplier nanoClock;
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Maybe<String>> loading = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+
+    /**
+     * @param ttl the time to live of the secrets, which may then be served stale for as long again while they are refreshed
+     */
+    public SecretCache(Duration ttl) {
+        this(ttl, ttl);
+    }
+
+    /**
+     * @param ttl the time to live of the secrets
+     * @param maxStaleness how long a secret may still be served once its time to live is over, while it cannot be refreshed
+     */
+    public SecretCache(Duration ttl, Duration maxStaleness) {
+        this(ttl, maxStaleness, Schedulers.io(), System::nanoTime);
+    }
+
+    SecretCache(Duration ttl, Duration maxStaleness, Scheduler refreshScheduler, LongSupplier nanoClock) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Secret cache time to live must be a positive duration");
+        }
+        if (maxStaleness.isNegative()) {
+            throw new IllegalArgumentException("Secret cache maximum staleness must not be negative");
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.refreshAheadNanos = (long) (ttlNanos * REFRESH_AHEAD_RATIO);
+        this.maxAgeNanos = ttlNanos + maxStaleness.toNanos();
+        this.refreshScheduler = refreshScheduler;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Get the secret cached for the given key, loading it with the provided loader on a cache miss.
+     *
+     * @param key the key of the secret, which must identify all the inputs of the loader
+     * @param loader the loader of the secret, called on a cache miss or to refresh it in the background, but never kept
+     * @return the cached secret, or the loaded one on a cache miss
+     */
+    public Maybe<String> get(String key, Supplier<Maybe<String>> loader) {
+        final String cached = getIfPresent(key, loader);
+        if (cached != null) {
+            return Maybe.just(cached);
+        }
+        misses.increment();
+        return Maybe.defer(() -> loading.computeIfAbsent(key, k -> load(k, loader)));
+    }
+
+    /**
+     * Get the secret cached for the given key, without loading it when it is not cached yet.
+     * Like {@link #get(String, Supplier)}, a background refresh is started when the secret is about to expire.
+     *
+     * @param key the key of the secret, which must identify all the inputs of the loader
+     * @param loader the loader of the secret, used to refresh it in the background
+     * @return the cached secret, or <code>null</code> when it is not cached
+     */
+    public String getIfPresent(String key, Supplier<Maybe<String>> loader) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        final long age = nanoClock.getAsLong() - entry.loadedAt();
+        if (age >= maxAgeNanos) {
+            // Refreshes kept failing for too long: the secret must be loaded again before it is used
+            entries.remove(key, entry);
+            log.warn("Dropping a secret that could not be refreshed within its maximum staleness (key={})", key);
+            return null;
+        }
+
+        hits.increment();
+        if (age >= refreshAheadNanos) {
+            refresh(key, entry, loader);
+        }
+        if (age >= ttlNanos) {
+            log.debug("Serving a stale secret while it is being refreshed (key={})", key);
+        }
+        return entry.secret();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long refreshes() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Load a secret on a cache miss. The load is shared by the lookups missing the same key until it is over.
+     */
+    private Maybe<String> load(String key, Supplier<Maybe<String>> loader) {
+        return Maybe.defer(loader::get)
+            .doOnSuccess(secret -> entries.put(key, new Entry(secret, nanoClock.getAsLong())))
+            .doOnEvent((secret, error) -> loading.remove(key))
+            .cache();
+    }
+
+    private void refresh(String key, Entry entry, Supplier<Maybe<String>> loader) {
+        if (!entry.refreshing().compareAndSet(false, true)) {
+            return;
+        }
+        refreshes.increment();
+        final Maybe<String> refreshed;
+        try {
+            // Called on the thread of the lookup, only the resolution runs in the background
+            refreshed = loader.get();
+        } catch (RuntimeException e) {
+            log.warn("Unable to refresh the secret, the cached one is kept (key={})", key, e);
+            entry.refreshing().set(false);
+            return;
+        }
+        refreshed
+            .subscribeOn(refreshScheduler)
+            .subscribe(
+                secret -> entries.put(key, new Entry(secret, nanoClock.getAsLong())),
+                error -> {
+                    log.warn("Unable to refresh the secret, the cached one is kept (key={})", key, error);
+                    entry.refreshing().set(false);
+                },
+                () -> {
+                    log.warn("Secret resolved to nothing on refresh, the cached one is kept (key={})", key);
+                    entry.refreshing().set(false);
+                }
+            );
+    }
+
+    private record Entry(String secret, long loadedAt, AtomicBoolean refreshing) {
+        Entry(String secret, long loadedAt) {
+            this(secret, loadedAt, new AtomicBoolean());
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.tomitribe.auth.signatures.Algorithm;
+import org.tomitribe.auth.signatures.SignatureEnginePool;
+import org.tomitribe.auth.signatures.Signer;
+
+/**
+ * Bounded cache of {@link Signer} instances keyed by the resolved key id, a SHA-256 digest of the resolved secret and the algorithm.
+ * <p>
+ * Building a {@link Signer} creates the key material and runs a self-test signature, so it must not happen on every request.
+ * Lookups are lock-free; once the cache is full, the oldest entry is evicted first.
+ *
+ * @author GraviteeSource Team
+ */
+@Slf4j
+public class SignerCache {
+
+    public static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final int maxSize;
+    private final ConcurrentHashMap<Key, Signer> signers = new ConcurrentHashMap<>();
+    private final Queue<Key> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public SignerCache() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public SignerCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Signer cache size must be a positive number");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the signer matching the given key id, secret and algorithm, building it with the provided factory on a cache miss.
+     *
+     * @param keyId the resolved key id
+     * @param secret the resolved secret
+     * @param algorithm the signing algorithm
+     * @param signerFactory the factory used to build the signer when it is not cached yet
+     * @return the cached signer
+     */
+    public Signer get(String keyId, String secret, Algorithm algorithm, Supplier<Signer> signerFactory) {
+        return get(keyId, digest(secret), algorithm, signerFactory);
+    }
+
+    /**
+     * Same as {@link #get(String, String, Algorithm, Supplier)}, for a secret whose digest is already known.
+     *
+     * @param keyId the resolved key id
+     * @param secretDigest the SHA-256 digest of the resolved secret, see {@link #digest(String)}, which must not be modified
+     * @param algorithm the signing algorithm
+     * @param signerFactory the factory used to build the signer when it is not cached yet
+     * @return the cached signer
+     */
+    public Signer get(String keyId, byte[] secretDigest, Algorithm algorithm, Supplier<Signer> signerFactory) {
+        final Key key = new Key(keyId, algorithm, secretDigest);
+
+        final Signer cached = signers.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        final Signer signer = signers.computeIfAbsent(key, k -> {
+            final Signer built = signerFactory.get();
+            // Only once built, so that a failing factory leaves no key behind to evict
+            insertionOrder.add(k);
+            return built;
+        });
+        evictIfNeeded();
+        return signer;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public int size() {
+        return signers.size();
+    }
+
+    /**
+     * @return the engine pools of the cached signers, asymmetric ones only
+     */
+    public List<SignatureEnginePool> enginePools() {
+        final List<SignatureEnginePool> pools = new ArrayList<>();
+        for (Signer signer : signers.values()) {
+            final SignatureEnginePool pool = signer.getEnginePool();
+            if (pool != null) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    private void evictIfNeeded() {
+        while (signers.size() > maxSize) {
+            final Key eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            signers.remove(eldest);
+            log.debug("Signer evicted from cache (keyId={}, algorithm={})", eldest.keyId(), eldest.algorithm());
+        }
+    }
+
+    /**
+     * @param secret the resolved secret
+     * @return the SHA-256 digest identifying the secret in the cache keys
+     */
+    static byte[] digest(String secret) {
+        final MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return digest.digest(secret.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private record Key(String keyId, Algorithm algorithm, byte[] secretDigest) {
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return keyId.equals(other.keyId) && algorithm == other.algorithm && Arrays.equals(secretDigest, other.secretDigest);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(keyId, algorithm) * 31 + Arrays.hashCode(secretDigest);
+        }
+
+        @Override
+        public String toString() {
+            return "Key[keyId=" + keyId + ", algorithm=" + algorithm + "]";
+        }
+    }
+}
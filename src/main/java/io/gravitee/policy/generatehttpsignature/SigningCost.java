@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Cost of a single signature, attached as attributes to the execution context of the request, or to the signed message,
+ * so that it can be reported with the analytics of the call, e.g. as custom metrics set by the Assign Metrics policy.
+ *
+ * @author GraviteeSource Team
+ */
+final class SigningCost {
+
+    static final String ATTR_PREFIX = "generate-http-signature.";
+    /**
+     * Time elapsed between the signature request and the signature header being set, in microseconds.
+     */
+    static final String ATTR_DURATION = ATTR_PREFIX + "duration";
+    /**
+     * Number of payload bytes signed.
+     */
+    static final String ATTR_PAYLOAD_BYTES = ATTR_PREFIX + "payload-bytes";
+    /**
+     * <code>hit</code> when the signer was found in the {@link SignerCache}, <code>miss</code> when it had to be built.
+     */
+    static final String ATTR_SIGNER_CACHE = ATTR_PREFIX + "signer-cache";
+
+    private boolean signerCacheHit = true;
+
+    /**
+     * Notify that the signer was not cached and has been built for this signature.
+     */
+    void signerBuilt() {
+        signerCacheHit = false;
+    }
+
+    boolean signerCacheHit() {
+        return signerCacheHit;
+    }
+
+    /**
+     * @param attributes sets an attribute on the context or the message the signature is attached to
+     * @param durationNanos the time elapsed since the signature was requested
+     * @param payloadBytes the number of payload bytes signed
+     */
+    void attach(BiConsumer<String, Object> attributes, long durationNanos, long payloadBytes) {
+        attributes.accept(ATTR_DURATION, TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        attributes.accept(ATTR_PAYLOAD_BYTES, payloadBytes);
+        attributes.accept(ATTR_SIGNER_CACHE, signerCacheHit ? "hit" : "miss");
+    }
+}
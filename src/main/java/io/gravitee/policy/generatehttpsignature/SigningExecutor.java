@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import io.reactivex.rxjava3.core.Single;
+import io.reactivex.rxjava3.core.SingleEmitter;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded pool of worker threads computing signatures off the event loop.
+ * <p>
+ * The pool never grows beyond its workers and its queue: once both are full, signatures are rejected right away with a
+ * {@link RejectedSigningException} rather than queued, so that an overloaded gateway sheds load instead of piling up latency.
+ * Idle workers are released, and pools are shared by all the policies configured with the same bounds: a pool is shut down once
+ * {@link #release() released} by all the policies which {@link #shared(int, int) got} it.
+ * <p>
+ * Signing tasks submitted from a Vert.x context, such as the event loop handling a request, signal their outcome back on that
+ * context, so that the rest of the execution keeps running on it.
+ *
+ * @author GraviteeSource Team
+ */
+public class SigningExecutor {
+
+    private static final long KEEP_ALIVE_SECONDS = 60;
+    private static final Map<Bounds, SigningExecutor> SHARED = new ConcurrentHashMap<>();
+
+    private final Bounds bounds;
+    private final ThreadPoolExecutor executor;
+    // Only updated while computing the entry of the shared pools, which serializes it
+    private int users;
+
+    SigningExecutor(int workers, int queueSize) {
+        if (workers <= 0 || queueSize <= 0) {
+            throw new IllegalArgumentException("Signing workers and queue size must be positive");
+        }
+        this.bounds = new Bounds(workers, queueSize);
+        this.executor = new ThreadPoolExecutor(
+            workers,
+            workers,
+            KEEP_ALIVE_SECONDS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            new WorkerThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Get the pool shared by all the policies using the same bounds, which must {@link #release() release} it once dropped.
+     *
+     * @param workers the number of worker threads
+     * @param queueSize the number of signatures which can wait for a worker
+     * @return the shared pool
+     */
+    public static SigningExecutor shared(int workers, int queueSize) {
+        return SHARED.compute(new Bounds(workers, queueSize), (bounds, executor) -> {
+            final SigningExecutor shared = executor != null ? executor : new SigningExecutor(bounds.workers(), bounds.queueSize());
+            shared.users++;
+            return shared;
+        });
+    }
+
+    /**
+     * Release the pool, which is shut down once no policy uses it anymore. The signatures already submitted still complete.
+     */
+    public void release() {
+        SHARED.compute(bounds, (key, shared) -> {
+            if (shared != this) {
+                // Not shared, this was its only user
+                executor.shutdown();
+                return shared;
+            }
+            if (--users > 0) {
+                return shared;
+            }
+            executor.shutdown();
+            return null;
+        });
+    }
+
+    boolean isShutdown() {
+        return executor.isShutdown();
+    }
+
+    /**
+     * Run the given signing task on a worker thread once subscribed. The returned {@link Single} emits the result, or errors with
+     * the failure of the task, on the Vert.x context it was subscribed from, or on the worker thread outside of any context.
+     * It errors right away with a {@link RejectedSigningException} when the pool is saturated or shut down.
+     */
+    public <T> Single<T> submit(Callable<T> task) {
+        return Single.create(emitter -> {
+            final Context context = Vertx.currentContext();
+            final Future<?> future;
+            try {
+                future = executor.submit(() -> {
+                    T result = null;
+                    Throwable failure = null;
+                    try {
+                        result = task.call();
+                    } catch (Throwable th) {
+                        failure = th;
+                    }
+                    signal(context, emitter, result, failure);
+                });
+            } catch (RejectedExecutionException e) {
+                emitter.tryOnError(new RejectedSigningException());
+                return;
+            }
+            emitter.setCancellable(() -> future.cancel(false));
+        });
+    }
+
+    private static <T> void signal(Context context, SingleEmitter<T> emitter, T result, Throwable failure) {
+        if (context == null) {
+            complete(emitter, result, failure);
+        } else {
+            context.runOnContext(ignored -> complete(emitter, result, failure));
+        }
+    }
+
+    private static <T> void complete(SingleEmitter<T> emitter, T result, Throwable failure) {
+        if (failure == null) {
+            emitter.onSuccess(result);
+        } else {
+            emitter.tryOnError(failure);
+        }
+    }
+
+    /**
+     * Signals that the signature was not computed because all the workers are busy and the queue is full.
+     * Raised under load, so it carries neither a stack trace nor suppressed exceptions.
+     */
+    public static class RejectedSigningException extends RuntimeException {
+
+        public RejectedSigningException() {
+            super("Too many signatures are being generated, try again later", null, false, false);
+        }
+    }
+
+    private record Bounds(int workers, int queueSize) {}
+
+    private static class WorkerThreadFactory implements ThreadFactory {
+
+        private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+        private final String prefix = "gio-http-signature-" + POOL_COUNT.incrementAndGet() + "-";
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            final Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
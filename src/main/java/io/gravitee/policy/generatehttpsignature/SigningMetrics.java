@@ -0,0 +1,268 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import org.tomitribe.auth.signatures.SignatureEnginePool;
+
+/**
+ * Signing metrics, tagged with the API and the algorithm, published to the meter registry of the gateway.
+ * <ul>
+ *     <li><code>gravitee.policy.http.signature.duration</code>: timer of each <code>phase</code>, publishing a percentile histogram
+ *     only when enabled, as its buckets add dozens of series per API, algorithm and phase.
+ *     <code>resolution</code> is the resolution of the secret, <code>signing</code> the canonicalization of the message along
+ *     with the cryptographic signature, as the signing string is streamed into the signature engine, <code>header</code>
+ *     the rendering and writing of the signature header, and <code>total</code> all of them, queueing on the signing
+ *     workers included</li>
+ *     <li><code>gravitee.policy.http.signature.bytes</code>: counter of the payload bytes signed</li>
+ *     <li><code>gravitee.policy.http.signature.signatures</code>: counter of the signatures produced</li>
+ *     <li><code>gravitee.policy.http.signature.failures</code>: counter of the failures, tagged with their <code>key</code></li>
+ *     <li><code>gravitee.policy.http.signature.engines</code>: gauge of the signature engines pooled by the cached asymmetric
+ *     signers, by <code>state</code>: <code>in-use</code>, <code>idle</code> and <code>max</code></li>
+ *     <li><code>gravitee.policy.http.signature.engines.rejected</code>: counter of the signatures rejected by the cached asymmetric
+ *     signers as all their engines were in use</li>
+ * </ul>
+ * The meters of an API are registered the first time it is seen, so that recording only reads precomputed meters.
+ * Several policy instances may record into the meters of the same API, e.g. the request and response flows, or the old and new
+ * deployments of a redeployed API: the meters are removed from the registry once the last of them is {@link #close() closed}.
+ *
+ * @author GraviteeSource Team
+ */
+public class SigningMetrics {
+
+    static final String DURATION = "gravitee.policy.http.signature.duration";
+    static final String BYTES = "gravitee.policy.http.signature.bytes";
+    static final String SIGNATURES = "gravitee.policy.http.signature.signatures";
+    static final String FAILURES = "gravitee.policy.http.signature.failures";
+    static final String ENGINES = "gravitee.policy.http.signature.engines";
+    static final String ENGINES_REJECTED = "gravitee.policy.http.signature.engines.rejected";
+    static final String UNKNOWN_API = "unknown";
+
+    private static final List<String> NAMES = List.of(DURATION, BYTES, SIGNATURES, FAILURES, ENGINES, ENGINES_REJECTED);
+
+    /**
+     * The instances recording into the meters of each API, algorithm and registry.
+     */
+    private static final ConcurrentHashMap<Registration, Set<SigningMetrics>> HOLDERS = new ConcurrentHashMap<>();
+
+    private final MeterRegistry registry;
+    private final String algorithm;
+    private final Supplier<? extends Collection<SignatureEnginePool>> enginePools;
+    private final boolean histograms;
+    private final ConcurrentHashMap<String, Meters> metersByApi = new ConcurrentHashMap<>();
+
+    /**
+     * @param registry the meter registry of the gateway, <code>null</code> when the gateway has none, in which case nothing is published
+     * @param algorithm the configured algorithm
+     */
+    public SigningMetrics(MeterRegistry registry, String algorithm) {
+        this(registry, algorithm, null);
+    }
+
+    /**
+     * @param registry the meter registry of the gateway, <code>null</code> when the gateway has none, in which case nothing is published
+     * @param algorithm the configured algorithm
+     * @param enginePools the engine pools of the signers currently cached, <code>null</code> when the algorithm pools no engine
+     */
+    public SigningMetrics(MeterRegistry registry, String algorithm, Supplier<? extends Collection<SignatureEnginePool>> enginePools) {
+        this(registry, algorithm, enginePools, false);
+    }
+
+    /**
+     * @param registry the meter registry of the gateway, <code>null</code> when the gateway has none, in which case nothing is published
+     * @param algorithm the configured algorithm
+     * @param enginePools the engine pools of the signers currently cached, <code>null</code> when the algorithm pools no engine
+     * @param histograms whether the timers publish a percentile histogram, as set by the first instance registering the meters of an API
+     */
+    public SigningMetrics(
+        MeterRegistry registry,
+        String algorithm,
+        Supplier<? extends Collection<SignatureEnginePool>> enginePools,
+        boolean histograms
+    ) {
+        // A composite registry without any registry only creates no-op meters
+        this.registry = registry != null ? registry : new CompositeMeterRegistry();
+        this.algorithm = algorithm != null ? algorithm : "none";
+        this.enginePools = enginePools;
+        this.histograms = histograms;
+    }
+
+    /**
+     * @param api the id of the API, <code>null</code> when unknown
+     * @return the meters of the given API
+     */
+    public Meters forApi(String api) {
+        return metersByApi.computeIfAbsent(api != null ? api : UNKNOWN_API, this::register);
+    }
+
+    /**
+     * Stop recording, and remove from the registry the meters of the APIs that no other instance records into anymore.
+     */
+    public void close() {
+        metersByApi.values().forEach(meters ->
+            HOLDERS.computeIfPresent(meters.registration, (registration, holders) -> {
+                holders.remove(this);
+                if (!holders.isEmpty()) {
+                    return holders;
+                }
+                for (String name : NAMES) {
+                    registry
+                        .find(name)
+                        .tag("api", registration.api())
+                        .tag("algorithm", registration.algorithm())
+                        .meters()
+                        .forEach(registry::remove);
+                }
+                return null;
+            })
+        );
+        metersByApi.clear();
+    }
+
+    private Meters register(String api) {
+        final Registration registration = new Registration(registry, api, algorithm);
+        HOLDERS.compute(registration, (key, holders) -> {
+            final Set<SigningMetrics> updated = holders != null ? holders : ConcurrentHashMap.newKeySet();
+            updated.add(this);
+            return updated;
+        });
+        return new Meters(registration);
+    }
+
+    /**
+     * Sum the given value over the engine pools of all the instances recording into the meters of an API.
+     */
+    private static double sumEnginePools(Registration registration, ToDoubleFunction<SignatureEnginePool> value) {
+        final Set<SigningMetrics> holders = HOLDERS.get(registration);
+        if (holders == null) {
+            return 0;
+        }
+        double sum = 0;
+        for (SigningMetrics holder : holders) {
+            if (holder.enginePools != null) {
+                for (SignatureEnginePool pool : holder.enginePools.get()) {
+                    sum += value.applyAsDouble(pool);
+                }
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Identity of the meters of an API: the registry is compared by identity.
+     */
+    private record Registration(MeterRegistry registry, String api, String algorithm) {}
+
+    public final class Meters {
+
+        private final Registration registration;
+        private final String api;
+        private final Timer resolution;
+        private final Timer signing;
+        private final Timer header;
+        private final Timer total;
+        private final Counter bytes;
+        private final Counter signatures;
+        private final ConcurrentHashMap<String, Counter> failures = new ConcurrentHashMap<>();
+
+        private Meters(Registration registration) {
+            this.registration = registration;
+            this.api = registration.api();
+            this.resolution = timer("resolution");
+            this.signing = timer("signing");
+            this.header = timer("header");
+            this.total = timer("total");
+            this.bytes = Counter.builder(BYTES).baseUnit("bytes").tag("api", api).tag("algorithm", algorithm).register(registry);
+            this.signatures = Counter.builder(SIGNATURES).tag("api", api).tag("algorithm", algorithm).register(registry);
+            if (enginePools != null) {
+                engines("in-use", SignatureEnginePool::getInUse);
+                engines("idle", SignatureEnginePool::getIdle);
+                engines("max", SignatureEnginePool::getMaxSize);
+                FunctionCounter.builder(ENGINES_REJECTED, registration, r -> sumEnginePools(r, SignatureEnginePool::getRejected))
+                    .tag("api", api)
+                    .tag("algorithm", algorithm)
+                    .register(registry);
+            }
+        }
+
+        /**
+         * Record the time spent resolving the secret.
+         */
+        public void resolved(long nanos) {
+            resolution.record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Record a signature produced and written.
+         *
+         * @param totalNanos the time elapsed since the signature was requested, the resolution of the secret included
+         * @param signingNanos the time spent building the signing string and signing it
+         * @param headerNanos the time spent rendering and writing the signature header
+         * @param payloadBytes the number of payload bytes signed
+         */
+        public void signed(long totalNanos, long signingNanos, long headerNanos, long payloadBytes) {
+            total.record(totalNanos, TimeUnit.NANOSECONDS);
+            signing.record(signingNanos, TimeUnit.NANOSECONDS);
+            header.record(headerNanos, TimeUnit.NANOSECONDS);
+            bytes.increment(payloadBytes);
+            signatures.increment();
+        }
+
+        /**
+         * Record a failure.
+         *
+         * @param key the key of the execution failure, one of the <code>HTTP_SIGNATURE_*</code> keys
+         */
+        public void failed(String key) {
+            failures
+                .computeIfAbsent(key, k ->
+                    Counter.builder(FAILURES).tag("api", api).tag("algorithm", algorithm).tag("key", k).register(registry)
+                )
+                .increment();
+        }
+
+        private void engines(String state, ToDoubleFunction<SignatureEnginePool> value) {
+            // The registration only holds the key of the holders, the gauge keeps it reachable as long as it is registered
+            Gauge.builder(ENGINES, registration, r -> sumEnginePools(r, value))
+                .tag("api", api)
+                .tag("algorithm", algorithm)
+                .tag("state", state)
+                .strongReference(true)
+                .register(registry);
+        }
+
+        private Timer timer(String phase) {
+            return Timer.builder(DURATION)
+                .tag("api", api)
+                .tag("algorithm", algorithm)
+                .tag("phase", phase)
+                .publishPercentileHistogram(histograms)
+                .register(registry);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import io.gravitee.gateway.api.http.HttpHeaderNames;
+import io.gravitee.policy.generatehttpsignature.configuration.GenerateHttpSignaturePolicyConfiguration;
+import io.gravitee.policy.generatehttpsignature.configuration.HttpSignatureScheme;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.tomitribe.auth.signatures.Algorithm;
+import org.tomitribe.auth.signatures.SigningComponent;
+
+/**
+ * Immutable form of the {@link GenerateHttpSignaturePolicyConfiguration}, compiled once when the policy is created,
+ * so that signing a message only walks precomputed values.
+ *
+ * @param requiredHeaders the headers as configured, which must be present on the signed message
+ * @param signedHeaders the lowercased headers followed by the <code>(created)</code> and <code>(expires)</code> pseudo-headers when enabled
+ * @param components the signed headers compiled into signing string components
+ * @param signsRequestTarget whether <code>(request-target)</code> is part of the signed headers, in which case method and uri are needed
+ * @param algorithm the signing algorithm
+ * @param scheme the configured scheme
+ * @param targetHeader the name of the header receiving the signature
+ * @param stripSchemePrefix whether the header value is rendered without the <code>Signature </code> prefix
+ *
+ * @author GraviteeSource Team
+ */
+record SigningPlan(
+    List<String> requiredHeaders,
+    List<String> signedHeaders,
+    List<SigningComponent> components,
+    boolean signsRequestTarget,
+    Algorithm algorithm,
+    HttpSignatureScheme scheme,
+    String targetHeader,
+    boolean stripSchemePrefix
+) {
+    static SigningPlan compile(GenerateHttpSignaturePolicyConfiguration configuration) {
+        final List<String> requiredHeaders = List.copyOf(Optional.ofNullable(configuration.headers()).orElseGet(List::of));
+
+        final List<String> signedHeaders = new ArrayList<>(requiredHeaders.size() + 2);
+        requiredHeaders.forEach(header -> signedHeaders.add(header.toLowerCase()));
+        if (configuration.created()) {
+            signedHeaders.add("(created)");
+        }
+        if (configuration.expires()) {
+            signedHeaders.add("(expires)");
+        }
+        final List<SigningComponent> components = SigningComponent.compile(signedHeaders);
+
+        final HttpSignatureScheme scheme = configuration.scheme();
+        final String targetHeader;
+        if (HttpSignatureScheme.SIGNATURE.equals(scheme)) {
+            targetHeader = "Signature";
+        } else if (HttpSignatureScheme.AUTHORIZATION.equals(scheme)) {
+            targetHeader = HttpHeaderNames.AUTHORIZATION;
+        } else {
+            targetHeader = configuration.targetSignatureHeader();
+        }
+
+        return new SigningPlan(
+            requiredHeaders,
+            List.copyOf(signedHeaders),
+            components,
+            components.stream().anyMatch(component -> component.getType() == SigningComponent.Type.REQUEST_TARGET),
+            configuration.algorithm() != null ? configuration.algorithm().getAlg() : null,
+            scheme,
+            targetHeader,
+            !HttpSignatureScheme.AUTHORIZATION.equals(scheme)
+        );
+    }
+}
@@ -15,6 +15,10 @@
  */
 package io.gravitee.policy.generatehttpsignature.configuration;
 
+import java.security.spec.AlgorithmParameterSpec;
+import java.security.spec.MGF1ParameterSpec;
+import java.security.spec.PSSParameterSpec;
+
 /**
  * @author Yann TAVERNIER (yann.tavernier at graviteesource.com)
  * @author GraviteeSource Team
@@ -23,15 +27,44 @@ public enum Algorithm {
     HMAC_SHA1(org.tomitribe.auth.signatures.Algorithm.HMAC_SHA1),
     HMAC_SHA256(org.tomitribe.auth.signatures.Algorithm.HMAC_SHA256),
     HMAC_SHA384(org.tomitribe.auth.signatures.Algorithm.HMAC_SHA384),
-    HMAC_SHA512(org.tomitribe.auth.signatures.Algorithm.HMAC_SHA512);
+    HMAC_SHA512(org.tomitribe.auth.signatures.Algorithm.HMAC_SHA512),
+    RSA_SHA256(org.tomitribe.auth.signatures.Algorithm.RSA_SHA256),
+    RSA_SHA384(org.tomitribe.auth.signatures.Algorithm.RSA_SHA384),
+    RSA_SHA512(org.tomitribe.auth.signatures.Algorithm.RSA_SHA512),
+    RSA_PSS_SHA256(
+        org.tomitribe.auth.signatures.Algorithm.RSA_PSS,
+        new PSSParameterSpec("SHA-256", "MGF1", MGF1ParameterSpec.SHA256, 32, PSSParameterSpec.TRAILER_FIELD_BC)
+    ),
+    RSA_PSS_SHA512(
+        org.tomitribe.auth.signatures.Algorithm.RSA_PSS,
+        new PSSParameterSpec("SHA-512", "MGF1", MGF1ParameterSpec.SHA512, 64, PSSParameterSpec.TRAILER_FIELD_BC)
+    ),
+    ECDSA_SHA256(org.tomitribe.auth.signatures.Algorithm.ECDSA_SHA256),
+    ECDSA_SHA384(org.tomitribe.auth.signatures.Algorithm.ECDSA_SHA384),
+    ECDSA_SHA512(org.tomitribe.auth.signatures.Algorithm.ECDSA_SHA512),
+    ED25519(org.tomitribe.auth.signatures.Algorithm.ED25519),
+    ED448(org.tomitribe.auth.signatures.Algorithm.ED448);
 
     private org.tomitribe.auth.signatures.Algorithm alg;
+    private AlgorithmParameterSpec parameterSpec;
 
     Algorithm(org.tomitribe.auth.signatures.Algorithm alg) {
+        this(alg, null);
+    }
+
+    Algorithm(org.tomitribe.auth.signatures.Algorithm alg, AlgorithmParameterSpec parameterSpec) {
         this.alg = alg;
+        this.parameterSpec = parameterSpec;
     }
 
     public org.tomitribe.auth.signatures.Algorithm getAlg() {
         return alg;
     }
+
+    /**
+     * @return the parameters of the signature engine, only set for RSASSA-PSS which needs the digest and salt length to be fixed
+     */
+    public AlgorithmParameterSpec getParameterSpec() {
+        return parameterSpec;
+    }
 }
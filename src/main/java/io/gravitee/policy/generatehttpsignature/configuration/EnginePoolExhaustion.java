@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.configuration;
+
+import org.tomitribe.auth.signatures.EnginePoolOptions;
+
+/**
+ * What to do when an asymmetric signature is requested while all the pooled signature engines are in use.
+ *
+ * @author GraviteeSource Team
+ */
+public enum EnginePoolExhaustion {
+    /**
+     * Initialize an extra engine for this signature, dropped afterwards if the pool is full.
+     */
+    ALLOCATE(EnginePoolOptions.OnExhausted.ALLOCATE),
+    /**
+     * Reject the signature, which bounds the memory and CPU spent on signature engines.
+     */
+    FAIL(EnginePoolOptions.OnExhausted.FAIL);
+
+    private final EnginePoolOptions.OnExhausted onExhausted;
+
+    EnginePoolExhaustion(EnginePoolOptions.OnExhausted onExhausted) {
+        this.onExhausted = onExhausted;
+    }
+
+    public EnginePoolOptions.OnExhausted getOnExhausted() {
+        return onExhausted;
+    }
+}
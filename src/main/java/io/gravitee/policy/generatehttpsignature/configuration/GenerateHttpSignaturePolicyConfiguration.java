@@ -43,5 +43,27 @@ public record GenerateHttpSignaturePolicyConfiguration(
     boolean signPayload,
     boolean prependHeadersToBody,
     boolean signMethod,
-    boolean signUri
+    boolean signUri,
+    // Optional - sign the response payload chunk by chunk and send the signature in a trailer instead of a header
+    boolean streamResponsePayload,
+    // Optional - with signPayload disabled, sign only the response headers and leave the body unbuffered, the body is signed otherwise
+    boolean signResponseHeadersOnly,
+    // Optional - time to live in seconds of the secrets resolved from the secret manager, 0 disables the cache
+    long secretCacheTtl,
+    // Optional - sign the messages of a message response in parallel, keeping their order
+    boolean parallelMessageSigning,
+    // Optional - maximum number of messages signed at the same time in parallel mode, 0 means the number of available processors
+    int messageSigningConcurrency,
+    // Optional - where signatures are computed, inline when not set
+    SigningExecution signingExecution,
+    // Optional - number of worker threads computing signatures with the WORKER execution, 0 means the number of available processors
+    int signingWorkers,
+    // Optional - number of signatures waiting for a worker before new ones are rejected, 0 means the default size
+    int signingQueueSize,
+    // Optional - number of initialized signature engines kept by each asymmetric signer, 0 means twice the number of available processors
+    int enginePoolSize,
+    // Optional - what to do when all the signature engines are in use, ALLOCATE when not set
+    EnginePoolExhaustion enginePoolExhaustion,
+    // Optional - publish a percentile histogram with the signing duration timers, off as it publishes many series per API
+    boolean metricsHistograms
 ) implements PolicyConfiguration {}
@@ -0,0 +1,35 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.configuration;
+
+/**
+ * Where the signature is computed.
+ * <p>
+ * Virtual threads are not offered, as they require Java 21 while the policy targets Java 17.
+ *
+ * @author GraviteeSource Team
+ */
+public enum SigningExecution {
+    /**
+     * On the calling thread, usually the event loop. Best suited to HMAC signatures, which only take a few microseconds.
+     */
+    INLINE,
+    /**
+     * On a bounded pool of worker threads, so that CPU-heavy signatures do not stall the event loop.
+     * Signatures are rejected when all the workers are busy and the queue is full.
+     */
+    WORKER,
+}
@@ -25,6 +25,7 @@ import io.gravitee.gateway.api.http.HttpHeaders;
 import io.gravitee.policy.api.PolicyChain;
 import io.gravitee.policy.api.PolicyResult;
 import io.gravitee.policy.api.annotations.OnRequest;
+import io.gravitee.policy.generatehttpsignature.configuration.EnginePoolExhaustion;
 import io.gravitee.policy.generatehttpsignature.configuration.GenerateHttpSignaturePolicyConfiguration;
 import io.gravitee.policy.generatehttpsignature.configuration.HttpSignatureScheme;
 import java.io.IOException;
@@ -34,9 +35,11 @@ import java.util.List;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.tomitribe.auth.signatures.EnginePoolOptions;
 import org.tomitribe.auth.signatures.Signature;
 import org.tomitribe.auth.signatures.Signer;
 
@@ -53,9 +56,12 @@ public class GenerateHttpSignaturePolicyV3 {
     protected static final String ERROR_MESSAGE = "Unable to generate HTTP Signature:";
 
     protected final GenerateHttpSignaturePolicyConfiguration configuration;
+    protected final EnginePoolOptions enginePoolOptions;
+    private final PrivateKeyCache privateKeyCache = new PrivateKeyCache(PrivateKeyCache.DEFAULT_MAX_SIZE);
 
     public GenerateHttpSignaturePolicyV3(GenerateHttpSignaturePolicyConfiguration configuration) {
         this.configuration = configuration;
+        this.enginePoolOptions = enginePoolOptions(configuration);
     }
 
     @OnRequest
@@ -152,7 +158,7 @@ public class GenerateHttpSignaturePolicyV3 {
             keySupplier.get(),
             null,
             configuration.algorithm().getAlg(),
-            null,
+            configuration.algorithm().getParameterSpec(),
             null,
             configuredHeaders,
             configuredHeaders.contains("(expires)") ? configuration.validityDuration() * 1000 : null,
@@ -165,13 +171,32 @@ public class GenerateHttpSignaturePolicyV3 {
     /**
      * Build a signer based on the configured signature and the secret from policy configuration.
      *
+     * With an asymmetric algorithm, the secret is the PEM encoded private key. It is only parsed the first time it is seen
+     * by this policy instance, see {@link PrivateKeyCache}.
+     *
      * @param signature the formerly created signature from configuration
      * @return the signer able to create the signature with provided secret and algorithm
      */
     protected Signer buildSigner(Signature signature, Supplier<String> secretSupplier) {
         String secret = secretSupplier.get();
-        final Key key = new SecretKeySpec(secret.getBytes(), signature.getAlgorithm().getJvmName());
-        return new Signer(key, signature);
+        final Key key = Mac.class.equals(signature.getAlgorithm().getType())
+            ? new SecretKeySpec(secret.getBytes(), signature.getAlgorithm().getJvmName())
+            : privateKeyCache.get(secret);
+        return new Signer(key, signature, null, enginePoolOptions);
+    }
+
+    /**
+     * Size and exhaustion behavior of the signature engines pooled by each asymmetric signer, defaults when not configured.
+     */
+    static EnginePoolOptions enginePoolOptions(GenerateHttpSignaturePolicyConfiguration configuration) {
+        final EnginePoolExhaustion exhaustion = configuration.enginePoolExhaustion();
+        if (configuration.enginePoolSize() <= 0 && exhaustion == null) {
+            return EnginePoolOptions.defaults();
+        }
+        return EnginePoolOptions.of(
+            configuration.enginePoolSize() > 0 ? configuration.enginePoolSize() : EnginePoolOptions.DEFAULT_MAX_SIZE,
+            exhaustion != null ? exhaustion.getOnExhausted() : EnginePoolOptions.OnExhausted.ALLOCATE
+        );
     }
 
     private String getSecret(ExecutionContext context) {
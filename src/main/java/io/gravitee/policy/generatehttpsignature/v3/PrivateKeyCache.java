@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature.v3;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
+import java.security.spec.InvalidKeySpecException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.tomitribe.auth.signatures.PEM;
+
+/**
+ * Bounded cache of the private keys parsed from PEM encoded secrets, keyed by a SHA-256 digest of the PEM content.
+ * <p>
+ * Parsing a key decodes the PEM armor, walks the DER structure and goes through a {@link java.security.KeyFactory},
+ * so it must happen once per key rather than once per request. Each policy instance owns its cache: a key resolved under
+ * several key ids is only parsed once, and the keys are released with the policy when its API is undeployed or redeployed,
+ * so a rotated key does not outlive the deployment that used it.
+ * Lookups are lock-free; once the cache is full, the oldest entry is evicted first.
+ *
+ * @author GraviteeSource Team
+ */
+@Slf4j
+class PrivateKeyCache {
+
+    static final int DEFAULT_MAX_SIZE = 256;
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private final int maxSize;
+    private final ConcurrentHashMap<ByteBuffer, PrivateKey> keys = new ConcurrentHashMap<>();
+    private final Queue<ByteBuffer> insertionOrder = new ConcurrentLinkedQueue<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    PrivateKeyCache(int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Private key cache size must be a positive number");
+        }
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get the private key encoded in the given PEM content, parsing it on a cache miss.
+     *
+     * @param pem the PEM encoded private key, in PKCS#1 or PKCS#8 format
+     * @return the cached private key
+     * @throws IllegalArgumentException if the content is not a valid PEM encoded private key
+     */
+    PrivateKey get(String pem) {
+        final byte[] content = pem.getBytes(StandardCharsets.UTF_8);
+        final ByteBuffer key = ByteBuffer.wrap(digest(content));
+
+        final PrivateKey cached = keys.get(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        final PrivateKey privateKey = keys.computeIfAbsent(key, k -> {
+            final PrivateKey parsed = parse(content);
+            insertionOrder.add(k);
+            return parsed;
+        });
+        evictIfNeeded();
+        return privateKey;
+    }
+
+    long hits() {
+        return hits.sum();
+    }
+
+    long misses() {
+        return misses.sum();
+    }
+
+    int size() {
+        return keys.size();
+    }
+
+    private void evictIfNeeded() {
+        while (keys.size() > maxSize) {
+            final ByteBuffer eldest = insertionOrder.poll();
+            if (eldest == null) {
+                return;
+            }
+            keys.remove(eldest);
+            log.debug("Private key evicted from cache");
+        }
+    }
+
+    private static PrivateKey parse(byte[] pem) {
+        try {
+            return PEM.readPrivateKey(new ByteArrayInputStream(pem));
+        } catch (IOException | InvalidKeySpecException e) {
+            throw new IllegalArgumentException("The secret is not a valid PEM encoded private key", e);
+        }
+    }
+
+    private static byte[] digest(byte[] content) {
+        final MessageDigest digest = SHA_256.get();
+        digest.reset();
+        return digest.digest(content);
+    }
+}
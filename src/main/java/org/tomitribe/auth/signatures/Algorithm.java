@@ -61,7 +61,13 @@ public enum Algorithm {
     // The signature is the raw concatenation of r and s.
     ECDSA_SHA256_P1363("SHA256withECDSAinP1363Format", "ecdsa-sha256-p1363", java.security.Signature.class),
     ECDSA_SHA384_P1363("SHA384withECDSAinP1363Format", "ecdsa-sha384-p1363", java.security.Signature.class),
-    ECDSA_SHA512_P1363("SHA512withECDSAinP1363Format", "ecdsa-sha512-p1363", java.security.Signature.class);
+    ECDSA_SHA512_P1363("SHA512withECDSAinP1363Format", "ecdsa-sha512-p1363", java.security.Signature.class),
+
+    // eddsa
+    // Pure EdDSA as defined in RFC 8032: the signing string is not hashed beforehand
+    // and the signature is 64 bytes long with Ed25519, 114 bytes long with Ed448.
+    ED25519("Ed25519", "ed25519", java.security.Signature.class),
+    ED448("Ed448", "ed448", java.security.Signature.class);
 
     private static final Map<String, Algorithm> aliases = new HashMap<String, Algorithm>();
 
@@ -11,4 +11,12 @@ public class AuthenticationException extends RuntimeException {
     public AuthenticationException(final String message, final Throwable cause) {
         super(message, cause);
     }
+
+    /**
+     * For the failures raised on every rejected message: when the stack trace is not writable, creating the exception
+     * does not walk the stack, and since no suppressed exception can be attached either, a single instance may be shared.
+     */
+    protected AuthenticationException(final String message, final boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
 }
@@ -1,5 +1,9 @@
 package org.tomitribe.auth.signatures;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
 /**
  * Provides Base64 encoding and decoding as defined by RFC 2045.
  *
@@ -7,6 +11,10 @@ package org.tomitribe.auth.signatures;
  * from RFC 2045 <cite>Multipurpose Internet Mail Extensions (MIME) Part One:
  * Format of Internet Message Bodies</cite> by Freed and Borenstein.</p>
  *
+ * <p>Besides the allocating {@link #encodeBase64(byte[])} and {@link #decodeBase64(byte[])},
+ * the codec writes straight into buffers owned by the caller: byte or char arrays, or the
+ * {@link StringBuilder} of a header being rendered, so that no intermediate array is needed.</p>
+ *
  * @see <a href="http://www.ietf.org/rfc/rfc2045.txt">RFC 2045</a>
  */
 public enum Base64 {
@@ -27,42 +35,7 @@ public enum Base64 {
      *
      * @see <a href="http://www.ietf.org/rfc/rfc2045.txt">RFC 2045 section 2.1</a>
      */
-    static final byte[] CHUNK_SEPARATOR = "\r\n".getBytes();
-
-    /**
-     * The base length.
-     */
-    static final int BASELENGTH = 255;
-
-    /**
-     * Lookup length.
-     */
-    static final int LOOKUPLENGTH = 64;
-
-    /**
-     * Used to calculate the number of bits in a byte.
-     */
-    static final int EIGHTBIT = 8;
-
-    /**
-     * Used when encoding something which has fewer than 24 bits.
-     */
-    static final int SIXTEENBIT = 16;
-
-    /**
-     * Used to determine how many bits data contains.
-     */
-    static final int TWENTYFOURBITGROUP = 24;
-
-    /**
-     * Used to get the number of Quadruples.
-     */
-    static final int FOURBYTE = 4;
-
-    /**
-     * Used to test the sign of a byte.
-     */
-    static final int SIGN = -128;
+    static final byte[] CHUNK_SEPARATOR = "\r\n".getBytes(StandardCharsets.US_ASCII);
 
     /**
      * Byte used to pad output.
@@ -70,80 +43,35 @@ public enum Base64 {
     static final byte PAD = (byte) '=';
 
     /**
-     * Contains the Base64 values <code>0</code> through <code>63</code> accessed by using character encodings as
-     * indices.
-     * <p>
-     * For example, <code>base64Alphabet['+']</code> returns <code>62</code>.
-     * </p>
-     * <p>
-     * The value of undefined encodings is <code>-1</code>.
-     * </p>
+     * The Base64 encodings <code>A</code> through <code>Z</code>, followed by <code>a</code> through
+     * <code>z</code>, followed by <code>0</code> through <code>9</code>, followed by <code>+</code>, and
+     * <code>/</code>, accessed by their 6-bit value.
      */
-    private static byte[] base64Alphabet = new byte[BASELENGTH];
+    private static final byte[] ALPHABET = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".getBytes(
+        StandardCharsets.US_ASCII
+    );
 
     /**
-     * <p>
-     * Contains the Base64 encodings <code>A</code> through <code>Z</code>, followed by <code>a</code> through
-     * <code>z</code>, followed by <code>0</code> through <code>9</code>, followed by <code>+</code>, and
-     * <code>/</code>.
-     * </p>
-     * <p>
-     * This array is accessed by using character values as indices.
-     * </p>
-     * <p>
-     * For example, <code>lookUpBase64Alphabet[62] </code> returns <code>'+'</code>.
-     * </p>
+     * The 6-bit values of the Base64 encodings, accessed by character value.
+     * The value of undefined encodings, padding included, is <code>-1</code>.
      */
-    private static byte[] lookUpBase64Alphabet = new byte[LOOKUPLENGTH];
+    private static final byte[] VALUES = new byte[256];
 
-    // Populating the lookup and character arrays
     static {
-        for (int i = 0; i < BASELENGTH; i++) {
-            base64Alphabet[i] = (byte) -1;
-        }
-        for (int i = 'Z'; i >= 'A'; i--) {
-            base64Alphabet[i] = (byte) (i - 'A');
-        }
-        for (int i = 'z'; i >= 'a'; i--) {
-            base64Alphabet[i] = (byte) (i - 'a' + 26);
-        }
-        for (int i = '9'; i >= '0'; i--) {
-            base64Alphabet[i] = (byte) (i - '0' + 52);
-        }
-
-        base64Alphabet['+'] = 62;
-        base64Alphabet['/'] = 63;
-
-        for (int i = 0; i <= 25; i++) {
-            lookUpBase64Alphabet[i] = (byte) ('A' + i);
-        }
-
-        for (int i = 26, j = 0; i <= 51; i++, j++) {
-            lookUpBase64Alphabet[i] = (byte) ('a' + j);
-        }
-
-        for (int i = 52, j = 0; i <= 61; i++, j++) {
-            lookUpBase64Alphabet[i] = (byte) ('0' + j);
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            VALUES[ALPHABET[i]] = (byte) i;
         }
-
-        lookUpBase64Alphabet[62] = (byte) '+';
-        lookUpBase64Alphabet[63] = (byte) '/';
     }
 
     /**
-     * Returns whether or not the <code>octect</code> is in the base 64 alphabet.
+     * Returns the number of characters needed to encode the given number of bytes, padding included.
      *
-     * @param octect The value to test
-     * @return <code>true</code> if the value is defined in the the base 64 alphabet, <code>false</code> otherwise.
+     * @param length the number of bytes to encode
+     * @return the length of the encoded data
      */
-    private static boolean isBase64(final byte octect) {
-        if (octect == PAD) {
-            return true;
-        } else if (octect < 0 || base64Alphabet[octect] == -1) {
-            return false;
-        } else {
-            return true;
-        }
+    public static int encodedLength(final int length) {
+        return ((length + 2) / 3) * 4;
     }
 
     /**
@@ -167,117 +95,133 @@ public enum Base64 {
      * @return Base64-encoded data.
      */
     public static byte[] encodeBase64(final byte[] binaryData, final boolean isChunked) {
-        final int lengthDataBits = binaryData.length * EIGHTBIT;
-        final int fewerThan24bits = lengthDataBits % TWENTYFOURBITGROUP;
-        final int numberTriplets = lengthDataBits / TWENTYFOURBITGROUP;
-        byte encodedData[] = null;
-        int encodedDataLength = 0;
-        int nbrChunks = 0;
-
-        if (fewerThan24bits != 0) {
-            //data not divisible by 24 bit
-            encodedDataLength = (numberTriplets + 1) * 4;
-        } else {
-            // 16 or 8 bit
-            encodedDataLength = numberTriplets * 4;
-        }
-
-        // If the output is to be "chunked" into 76 character sections,
-        // for compliance with RFC 2045 MIME, then it is important to
-        // allow for extra length to account for the separator(s)
-        if (isChunked) {
-            nbrChunks = (CHUNK_SEPARATOR.length == 0 ? 0 : (int) Math.ceil((float) encodedDataLength / CHUNK_SIZE));
-            encodedDataLength += nbrChunks * CHUNK_SEPARATOR.length;
+        final int encodedLength = encodedLength(binaryData.length);
+        if (!isChunked) {
+            final byte[] encodedData = new byte[encodedLength];
+            encode(binaryData, 0, binaryData.length, encodedData, 0);
+            return encodedData;
         }
 
-        encodedData = new byte[encodedDataLength];
-
-        byte k = 0;
-        byte l = 0;
-        byte b1 = 0;
-        byte b2 = 0;
-        byte b3 = 0;
-
+        // Every chunk, the final one included, is followed by a separator.
+        // CHUNK_SIZE is a multiple of 4, so each chunk encodes a whole number of triplets.
+        final int chunks = (encodedLength + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final byte[] encodedData = new byte[encodedLength + chunks * CHUNK_SEPARATOR.length];
+        final int chunkBytes = CHUNK_SIZE / 4 * 3;
         int encodedIndex = 0;
-        int dataIndex = 0;
-        int i = 0;
-        int nextSeparatorIndex = CHUNK_SIZE;
-        int chunksSoFar = 0;
-
-        //log.debug("number of triplets = " + numberTriplets);
-        for (i = 0; i < numberTriplets; i++) {
-            dataIndex = i * 3;
-            b1 = binaryData[dataIndex];
-            b2 = binaryData[dataIndex + 1];
-            b3 = binaryData[dataIndex + 2];
-
-            //log.debug("b1= " + b1 +", b2= " + b2 + ", b3= " + b3);
-
-            l = (byte) (b2 & 0x0f);
-            k = (byte) (b1 & 0x03);
-
-            final byte val1 = ((b1 & SIGN) == 0) ? (byte) (b1 >> 2) : (byte) (((b1) >> 2) ^ 0xc0);
-            final byte val2 = ((b2 & SIGN) == 0) ? (byte) (b2 >> 4) : (byte) (((b2) >> 4) ^ 0xf0);
-            final byte val3 = ((b3 & SIGN) == 0) ? (byte) (b3 >> 6) : (byte) (((b3) >> 6) ^ 0xfc);
-
-            encodedData[encodedIndex] = lookUpBase64Alphabet[val1];
-            //log.debug( "val2 = " + val2 );
-            //log.debug( "k4   = " + (k<<4) );
-            //log.debug(  "vak  = " + (val2 | (k<<4)) );
-            encodedData[encodedIndex + 1] = lookUpBase64Alphabet[val2 | (k << 4)];
-            encodedData[encodedIndex + 2] = lookUpBase64Alphabet[(l << 2) | val3];
-            encodedData[encodedIndex + 3] = lookUpBase64Alphabet[b3 & 0x3f];
-
-            encodedIndex += 4;
-
-            // If we are chunking, let's put a chunk separator down.
-            if (isChunked) {
-                // this assumes that CHUNK_SIZE % 4 == 0
-                if (encodedIndex == nextSeparatorIndex) {
-                    System.arraycopy(CHUNK_SEPARATOR, 0, encodedData, encodedIndex, CHUNK_SEPARATOR.length);
-                    chunksSoFar++;
-                    nextSeparatorIndex = (CHUNK_SIZE * (chunksSoFar + 1)) + (chunksSoFar * CHUNK_SEPARATOR.length);
-                    encodedIndex += CHUNK_SEPARATOR.length;
-                }
-            }
+        for (int dataIndex = 0; dataIndex < binaryData.length; dataIndex += chunkBytes) {
+            encodedIndex += encode(binaryData, dataIndex, Math.min(chunkBytes, binaryData.length - dataIndex), encodedData, encodedIndex);
+            System.arraycopy(CHUNK_SEPARATOR, 0, encodedData, encodedIndex, CHUNK_SEPARATOR.length);
+            encodedIndex += CHUNK_SEPARATOR.length;
         }
+        return encodedData;
+    }
 
-        // form integral number of 6-bit groups
-        dataIndex = i * 3;
-
-        if (fewerThan24bits == EIGHTBIT) {
-            b1 = binaryData[dataIndex];
-            k = (byte) (b1 & 0x03);
-            //log.debug("b1=" + b1);
-            //log.debug("b1<<2 = " + (b1>>2) );
-            final byte val1 = ((b1 & SIGN) == 0) ? (byte) (b1 >> 2) : (byte) (((b1) >> 2) ^ 0xc0);
-            encodedData[encodedIndex] = lookUpBase64Alphabet[val1];
-            encodedData[encodedIndex + 1] = lookUpBase64Alphabet[k << 4];
-            encodedData[encodedIndex + 2] = PAD;
-            encodedData[encodedIndex + 3] = PAD;
-        } else if (fewerThan24bits == SIXTEENBIT) {
-            b1 = binaryData[dataIndex];
-            b2 = binaryData[dataIndex + 1];
-            l = (byte) (b2 & 0x0f);
-            k = (byte) (b1 & 0x03);
-
-            final byte val1 = ((b1 & SIGN) == 0) ? (byte) (b1 >> 2) : (byte) (((b1) >> 2) ^ 0xc0);
-            final byte val2 = ((b2 & SIGN) == 0) ? (byte) (b2 >> 4) : (byte) (((b2) >> 4) ^ 0xf0);
+    /**
+     * Encodes binary data into the given byte array, without chunking it.
+     *
+     * @param src the binary data
+     * @param offset the index of the first byte to encode
+     * @param length the number of bytes to encode
+     * @param dst the destination array, with at least {@link #encodedLength(int)} bytes left after <code>dstOffset</code>
+     * @param dstOffset the index of the first encoded character in the destination
+     * @return the number of encoded characters written
+     */
+    public static int encode(final byte[] src, final int offset, final int length, final byte[] dst, final int dstOffset) {
+        final int end = offset + length - length % 3;
+        int out = dstOffset;
+        for (int i = offset; i < end; i += 3) {
+            final int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[out] = ALPHABET[bits >>> 18];
+            dst[out + 1] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[out + 2] = ALPHABET[(bits >>> 6) & 0x3f];
+            dst[out + 3] = ALPHABET[bits & 0x3f];
+            out += 4;
+        }
+        final int remaining = length % 3;
+        if (remaining > 0) {
+            final int bits = (src[end] & 0xff) << 16 | (remaining == 2 ? (src[end + 1] & 0xff) << 8 : 0);
+            dst[out] = ALPHABET[bits >>> 18];
+            dst[out + 1] = ALPHABET[(bits >>> 12) & 0x3f];
+            dst[out + 2] = remaining == 2 ? ALPHABET[(bits >>> 6) & 0x3f] : PAD;
+            dst[out + 3] = PAD;
+            out += 4;
+        }
+        return out - dstOffset;
+    }
 
-            encodedData[encodedIndex] = lookUpBase64Alphabet[val1];
-            encodedData[encodedIndex + 1] = lookUpBase64Alphabet[val2 | (k << 4)];
-            encodedData[encodedIndex + 2] = lookUpBase64Alphabet[l << 2];
-            encodedData[encodedIndex + 3] = PAD;
+    /**
+     * Encodes binary data into the given char array, without chunking it.
+     *
+     * @param src the binary data
+     * @param offset the index of the first byte to encode
+     * @param length the number of bytes to encode
+     * @param dst the destination array, with at least {@link #encodedLength(int)} chars left after <code>dstOffset</code>
+     * @param dstOffset the index of the first encoded character in the destination
+     * @return the number of encoded characters written
+     */
+    public static int encode(final byte[] src, final int offset, final int length, final char[] dst, final int dstOffset) {
+        final int end = offset + length - length % 3;
+        int out = dstOffset;
+        for (int i = offset; i < end; i += 3) {
+            final int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst[out] = (char) ALPHABET[bits >>> 18];
+            dst[out + 1] = (char) ALPHABET[(bits >>> 12) & 0x3f];
+            dst[out + 2] = (char) ALPHABET[(bits >>> 6) & 0x3f];
+            dst[out + 3] = (char) ALPHABET[bits & 0x3f];
+            out += 4;
+        }
+        final int remaining = length % 3;
+        if (remaining > 0) {
+            final int bits = (src[end] & 0xff) << 16 | (remaining == 2 ? (src[end + 1] & 0xff) << 8 : 0);
+            dst[out] = (char) ALPHABET[bits >>> 18];
+            dst[out + 1] = (char) ALPHABET[(bits >>> 12) & 0x3f];
+            dst[out + 2] = remaining == 2 ? (char) ALPHABET[(bits >>> 6) & 0x3f] : (char) PAD;
+            dst[out + 3] = (char) PAD;
+            out += 4;
         }
+        return out - dstOffset;
+    }
 
-        if (isChunked) {
-            // we also add a separator to the end of the final chunk.
-            if (chunksSoFar < nbrChunks) {
-                System.arraycopy(CHUNK_SEPARATOR, 0, encodedData, encodedDataLength - CHUNK_SEPARATOR.length, CHUNK_SEPARATOR.length);
-            }
+    /**
+     * Appends the encoding of the given binary data to a string being built, such as a header value,
+     * without chunking it.
+     *
+     * @param src the binary data
+     * @param dst the builder to append the encoded characters to
+     * @return the given builder
+     */
+    public static StringBuilder encode(final byte[] src, final StringBuilder dst) {
+        dst.ensureCapacity(dst.length() + encodedLength(src.length));
+        final int end = src.length - src.length % 3;
+        for (int i = 0; i < end; i += 3) {
+            final int bits = (src[i] & 0xff) << 16 | (src[i + 1] & 0xff) << 8 | (src[i + 2] & 0xff);
+            dst
+                .append((char) ALPHABET[bits >>> 18])
+                .append((char) ALPHABET[(bits >>> 12) & 0x3f])
+                .append((char) ALPHABET[(bits >>> 6) & 0x3f])
+                .append((char) ALPHABET[bits & 0x3f]);
+        }
+        final int remaining = src.length % 3;
+        if (remaining > 0) {
+            final int bits = (src[end] & 0xff) << 16 | (remaining == 2 ? (src[end + 1] & 0xff) << 8 : 0);
+            dst.append((char) ALPHABET[bits >>> 18]).append((char) ALPHABET[(bits >>> 12) & 0x3f]);
+            dst.append(remaining == 2 ? (char) ALPHABET[(bits >>> 6) & 0x3f] : (char) PAD).append((char) PAD);
         }
+        return dst;
+    }
 
-        return encodedData;
+    /**
+     * Encodes binary data into a string, without chunking it.
+     * The encoded characters are written once and copied once into the string, without any charset decoding.
+     *
+     * @param src the binary data
+     * @return the Base64 encoded string
+     */
+    public static String encodeToString(final byte[] src) {
+        final byte[] encoded = new byte[encodedLength(src.length)];
+        encode(src, 0, src.length, encoded, 0);
+        // every Base64 character is a single Latin-1 byte, which compact strings store as is
+        return new String(encoded, StandardCharsets.ISO_8859_1);
     }
 
     /**
@@ -286,69 +230,70 @@ public enum Base64 {
      * @param base64Data Byte array containing Base64 data
      * @return Array containing decoded data.
      */
-    public static byte[] decodeBase64(byte[] base64Data) {
-        // RFC 2045 requires that we discard ALL non-Base64 characters
-        base64Data = discardNonBase64(base64Data);
-
-        // handle the edge case, so we don't have to worry about it later
-        if (base64Data.length == 0) {
-            return new byte[0];
-        }
-
-        final int numberQuadruple = base64Data.length / FOURBYTE;
-        byte decodedData[] = null;
-        byte b1 = 0;
-        byte b2 = 0;
-        byte b3 = 0;
-        byte b4 = 0;
-        byte marker0 = 0;
-        byte marker1 = 0;
-
-        // Throw away anything not in base64Data
-
-        int encodedIndex = 0;
-        int dataIndex = 0;
-        {
-            // this sizes the output array properly - rlw
-            int lastData = base64Data.length;
-            // ignore the '=' padding
-            while (base64Data[lastData - 1] == PAD) {
-                if (--lastData == 0) {
-                    return new byte[0];
-                }
-            }
-            decodedData = new byte[lastData - numberQuadruple];
-        }
-
-        for (int i = 0; i < numberQuadruple; i++) {
-            dataIndex = i * 4;
-            marker0 = base64Data[dataIndex + 2];
-            marker1 = base64Data[dataIndex + 3];
+    public static byte[] decodeBase64(final byte[] base64Data) {
+        final byte[] decodedData = new byte[decodedLength(base64Data, 0, base64Data.length)];
+        decode(base64Data, 0, base64Data.length, decodedData, 0);
+        return decodedData;
+    }
 
-            b1 = base64Alphabet[base64Data[dataIndex]];
-            b2 = base64Alphabet[base64Data[dataIndex + 1]];
+    /**
+     * Decodes Base64 characters into octects, without converting them into bytes first.
+     *
+     * @param base64Data the Base64 characters
+     * @return Array containing decoded data.
+     */
+    public static byte[] decodeBase64(final CharSequence base64Data) {
+        // characters outside of Latin-1 are not in the alphabet, as NUL
+        final Source source = i -> {
+            final char c = base64Data.charAt(i);
+            return c < 256 ? c : 0;
+        };
+        final byte[] decodedData = new byte[decodedLength(source, 0, base64Data.length())];
+        decode(source, 0, base64Data.length(), decodedData, 0);
+        return decodedData;
+    }
 
-            if (marker0 != PAD && marker1 != PAD) {
-                //No PAD e.g 3cQl
-                b3 = base64Alphabet[marker0];
-                b4 = base64Alphabet[marker1];
+    /**
+     * Decodes the Base64 data between the <code>from</code> and <code>to</code> indexes of the given buffer, which
+     * can be a memory-mapped file, into an array of the exact decoded size. The position of the buffer is left untouched.
+     *
+     * @see #decode(byte[], int, int, byte[], int)
+     */
+    static byte[] decode(final ByteBuffer src, final int from, final int to) {
+        final Source source = i -> src.get(i) & 0xff;
+        final byte[] decodedData = new byte[decodedLength(source, from, to)];
+        decode(source, from, to, decodedData, 0);
+        return decodedData;
+    }
 
-                decodedData[encodedIndex] = (byte) ((b1 << 2) | (b2 >> 4));
-                decodedData[encodedIndex + 1] = (byte) (((b2 & 0xf) << 4) | ((b3 >> 2) & 0xf));
-                decodedData[encodedIndex + 2] = (byte) ((b3 << 6) | b4);
-            } else if (marker0 == PAD) {
-                //Two PAD e.g. 3c[Pad][Pad]
-                decodedData[encodedIndex] = (byte) ((b1 << 2) | (b2 >> 4));
-            } else if (marker1 == PAD) {
-                //One PAD e.g. 3cQ[Pad]
-                b3 = base64Alphabet[marker0];
+    /**
+     * Returns the number of bytes encoded in the given Base64 data.
+     *
+     * @param src the Base64 data
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @return the number of bytes {@link #decode(byte[], int, int, byte[], int)} writes for this data
+     */
+    public static int decodedLength(final byte[] src, final int offset, final int length) {
+        return decodedLength(i -> src[i] & 0xff, offset, offset + length);
+    }
 
-                decodedData[encodedIndex] = (byte) ((b1 << 2) | (b2 >> 4));
-                decodedData[encodedIndex + 1] = (byte) (((b2 & 0xf) << 4) | ((b3 >> 2) & 0xf));
-            }
-            encodedIndex += 3;
-        }
-        return decodedData;
+    /**
+     * Decodes Base64 data into the given byte array.
+     * <p>
+     * Any character outside of the base64 alphabet is discarded, per the requirements on page 25 of RFC 2045:
+     * "Any characters outside of the base64 alphabet are to be ignored in base64 encoded data."
+     * Decoding stops at the first padding character.
+     *
+     * @param src the Base64 data
+     * @param offset the index of the first character
+     * @param length the number of characters
+     * @param dst the destination array, with at least {@link #decodedLength(byte[], int, int)} bytes left after <code>dstOffset</code>
+     * @param dstOffset the index of the first decoded byte in the destination
+     * @return the number of decoded bytes written
+     */
+    public static int decode(final byte[] src, final int offset, final int length, final byte[] dst, final int dstOffset) {
+        return decode(i -> src[i] & 0xff, offset, offset + length, dst, dstOffset);
     }
 
     /**
@@ -370,10 +315,61 @@ public enum Base64 {
             }
         }
 
-        final byte[] packedData = new byte[bytesCopied];
+        return Arrays.copyOf(groomedData, bytesCopied);
+    }
+
+    /**
+     * Returns whether or not the <code>octect</code> is in the base 64 alphabet.
+     *
+     * @param octect The value to test
+     * @return <code>true</code> if the value is defined in the the base 64 alphabet, <code>false</code> otherwise.
+     */
+    private static boolean isBase64(final byte octect) {
+        return octect == PAD || VALUES[octect & 0xff] >= 0;
+    }
+
+    /**
+     * Reads the character at an index of the Base64 data, as a value between 0 and 255.
+     */
+    @FunctionalInterface
+    private interface Source {
+        int get(int index);
+    }
 
-        System.arraycopy(groomedData, 0, packedData, 0, bytesCopied);
+    private static int decodedLength(final Source src, final int from, final int to) {
+        int sextets = 0;
+        for (int i = from; i < to; i++) {
+            final int c = src.get(i);
+            if (c == PAD) {
+                break;
+            }
+            if (VALUES[c] >= 0) {
+                sextets++;
+            }
+        }
+        return sextets * 6 / 8;
+    }
 
-        return packedData;
+    private static int decode(final Source src, final int from, final int to, final byte[] dst, final int dstOffset) {
+        int accumulator = 0;
+        int bits = 0;
+        int out = dstOffset;
+        for (int i = from; i < to; i++) {
+            final int c = src.get(i);
+            if (c == PAD) {
+                break;
+            }
+            final int value = VALUES[c];
+            if (value < 0) {
+                continue;
+            }
+            accumulator = accumulator << 6 | value;
+            bits += 6;
+            if (bits >= 8) {
+                bits -= 8;
+                dst[out++] = (byte) (accumulator >> bits);
+            }
+        }
+        return out - dstOffset;
     }
 }
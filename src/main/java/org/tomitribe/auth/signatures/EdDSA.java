@@ -0,0 +1,34 @@
+package org.tomitribe.auth.signatures;
+
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+
+/**
+ * Utility for Edwards-curve keys, either Ed25519 or Ed448, as defined in RFC 8410.
+ */
+public enum EdDSA {
+    ;
+
+    /**
+     * Returns a private key constructed from the given DER bytes in PKCS#8 format.
+     * @param pkcs8 DER bytes in PKCS#8 format
+     * @return Private key
+     * @throws InvalidKeySpecException if the DER bytes cannot be converted to a private key
+     */
+    public static PrivateKey privateKeyFromPKCS8(final byte[] pkcs8) throws InvalidKeySpecException {
+        return KeyFactories.EDDSA.generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+    }
+
+    /**
+     * Returns a public key constructed from the given DER bytes.
+     * @param derBytes DER bytes
+     * @return Public key
+     * @throws InvalidKeySpecException if the DER bytes cannot be converted to a public key
+     */
+    public static PublicKey publicKeyFrom(final byte[] derBytes) throws InvalidKeySpecException {
+        return KeyFactories.EDDSA.generatePublic(new X509EncodedKeySpec(derBytes));
+    }
+}
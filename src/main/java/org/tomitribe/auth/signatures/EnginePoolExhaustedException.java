@@ -0,0 +1,11 @@
+package org.tomitribe.auth.signatures;
+
+/**
+ * All the signature engines of a {@link SignatureEnginePool} are in use. Raised under load, so it carries no stack trace.
+ */
+public class EnginePoolExhaustedException extends AuthenticationException {
+
+    public EnginePoolExhaustedException(final String message) {
+        super(message, false);
+    }
+}
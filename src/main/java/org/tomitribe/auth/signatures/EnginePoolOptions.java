@@ -0,0 +1,57 @@
+package org.tomitribe.auth.signatures;
+
+/**
+ * Sizing and exhaustion behavior of the pool of initialized {@link java.security.Signature}
+ * engines kept by a {@link Signer} using an asymmetric algorithm.
+ */
+public final class EnginePoolOptions {
+
+    /**
+     * What to do when a signature is requested while every pooled engine is in use.
+     */
+    public enum OnExhausted {
+        /**
+         * Initialize an extra engine for this signature. It is kept if the pool has room for it
+         * once released, otherwise it is discarded.
+         */
+        ALLOCATE,
+        /**
+         * Reject the signature with an {@link EnginePoolExhaustedException}.
+         */
+        FAIL,
+    }
+
+    public static final int DEFAULT_MAX_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private static final EnginePoolOptions DEFAULTS = new EnginePoolOptions(DEFAULT_MAX_SIZE, OnExhausted.ALLOCATE);
+
+    private final int maxSize;
+    private final OnExhausted onExhausted;
+
+    private EnginePoolOptions(final int maxSize, final OnExhausted onExhausted) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Engine pool size must be a positive number");
+        }
+        if (onExhausted == null) {
+            throw new IllegalArgumentException("Engine pool exhaustion behavior is required");
+        }
+        this.maxSize = maxSize;
+        this.onExhausted = onExhausted;
+    }
+
+    public static EnginePoolOptions defaults() {
+        return DEFAULTS;
+    }
+
+    public static EnginePoolOptions of(final int maxSize, final OnExhausted onExhausted) {
+        return new EnginePoolOptions(maxSize, onExhausted);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public OnExhausted getOnExhausted() {
+        return onExhausted;
+    }
+}
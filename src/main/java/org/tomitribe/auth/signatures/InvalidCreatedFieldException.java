@@ -1,8 +1,11 @@
 package org.tomitribe.auth.signatures;
 
+/**
+ * The <code>(created)</code> field cannot be signed or verified. Stackless, as it is triggered by the traffic itself.
+ */
 public class InvalidCreatedFieldException extends AuthenticationException {
 
     public InvalidCreatedFieldException(final String message) {
-        super(message);
+        super(message, false);
     }
 }
@@ -1,8 +1,11 @@
 package org.tomitribe.auth.signatures;
 
+/**
+ * The <code>(expires)</code> field cannot be signed, or the signature has expired. Stackless, as expired signatures are routine.
+ */
 public class InvalidExpiresFieldException extends AuthenticationException {
 
     public InvalidExpiresFieldException(final String message) {
-        super(message);
+        super(message, false);
     }
 }
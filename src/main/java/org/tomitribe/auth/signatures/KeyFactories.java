@@ -0,0 +1,124 @@
+package org.tomitribe.auth.signatures;
+
+import java.io.IOException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.NoSuchProviderException;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.InvalidKeySpecException;
+import java.security.spec.KeySpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Arrays;
+import org.tomitribe.auth.signatures.RSA.Asn1Object;
+import org.tomitribe.auth.signatures.RSA.DerParser;
+
+/**
+ * The key factories used to read keys, with one cached instance per thread.
+ * <p>
+ * {@link KeyFactory#getInstance(String)} walks the registered providers on every call, which dominates the cost of
+ * reading many keys. {@link KeyFactory} instances are not thread-safe, hence one instance per thread.
+ * <p>
+ * The factory of an encoded key is picked from the object identifier of its <code>AlgorithmIdentifier</code>,
+ * instead of trying every factory until one accepts the key.
+ */
+enum KeyFactories {
+    // 1.2.840.113549.1.1.1
+    RSA("RSA", null, new byte[] { 0x2A, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xF7, 0x0D, 0x01, 0x01, 0x01 }),
+    // 1.2.840.113549.1.1.10
+    RSASSA_PSS("RSASSA-PSS", null, new byte[] { 0x2A, (byte) 0x86, 0x48, (byte) 0x86, (byte) 0xF7, 0x0D, 0x01, 0x01, 0x0A }),
+    // 1.2.840.10045.2.1
+    EC("EC", "SunEC", new byte[] { 0x2A, (byte) 0x86, 0x48, (byte) 0xCE, 0x3D, 0x02, 0x01 }),
+    // 1.3.101.112 and 1.3.101.113, the EdDSA factory accepts both Ed25519 and Ed448
+    EDDSA("EdDSA", null, new byte[] { 0x2B, 0x65, 0x70 }, new byte[] { 0x2B, 0x65, 0x71 });
+
+    private final byte[][] oids;
+    private final ThreadLocal<KeyFactory> factory;
+
+    KeyFactories(final String algorithm, final String provider, final byte[]... oids) {
+        this.oids = oids;
+        this.factory = ThreadLocal.withInitial(() -> {
+            try {
+                return provider == null ? KeyFactory.getInstance(algorithm) : KeyFactory.getInstance(algorithm, provider);
+            } catch (final NoSuchAlgorithmException | NoSuchProviderException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    /**
+     * @return the key factory of the calling thread
+     */
+    KeyFactory get() {
+        return factory.get();
+    }
+
+    PrivateKey generatePrivate(final KeySpec spec) throws InvalidKeySpecException {
+        return get().generatePrivate(spec);
+    }
+
+    PublicKey generatePublic(final KeySpec spec) throws InvalidKeySpecException {
+        return get().generatePublic(spec);
+    }
+
+    /**
+     * Returns a private key constructed from the given DER bytes in PKCS#8 format, with the factory
+     * matching the algorithm of the key.
+     *
+     * @param pkcs8 DER bytes in PKCS#8 format
+     * @return Private key
+     * @throws InvalidKeySpecException if the algorithm of the key is not supported, or the DER bytes cannot be converted to a private key
+     */
+    static PrivateKey privateKeyFromPKCS8(final byte[] pkcs8) throws InvalidKeySpecException {
+        // PrivateKeyInfo ::= SEQUENCE { version INTEGER, privateKeyAlgorithm AlgorithmIdentifier, privateKey OCTET STRING }
+        return forKeyInfo(pkcs8, true).generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
+    }
+
+    /**
+     * Returns a public key constructed from the given DER bytes in X.509 format, with the factory
+     * matching the algorithm of the key.
+     *
+     * @param derBytes DER bytes in X.509 SubjectPublicKeyInfo format
+     * @return Public key
+     * @throws InvalidKeySpecException if the algorithm of the key is not supported, or the DER bytes cannot be converted to a public key
+     */
+    static PublicKey publicKeyFrom(final byte[] derBytes) throws InvalidKeySpecException {
+        // SubjectPublicKeyInfo ::= SEQUENCE { algorithm AlgorithmIdentifier, subjectPublicKey BIT STRING }
+        return forKeyInfo(derBytes, false).generatePublic(new X509EncodedKeySpec(derBytes));
+    }
+
+    private static KeyFactories forKeyInfo(final byte[] der, final boolean versioned) throws InvalidKeySpecException {
+        final byte[] oid;
+        try {
+            final Asn1Object keyInfo = new DerParser(der).read();
+            if (keyInfo.getType() != DerParser.SEQUENCE) {
+                throw new InvalidKeySpecException("Invalid DER: not a sequence");
+            }
+            final DerParser fields = keyInfo.getParser();
+            if (versioned) {
+                fields.read(); // Skip version
+            }
+            final Asn1Object algorithmIdentifier = fields.read();
+            if (algorithmIdentifier.getType() != DerParser.SEQUENCE) {
+                throw new InvalidKeySpecException("Invalid DER: the algorithm identifier is not a sequence");
+            }
+            final Asn1Object algorithm = algorithmIdentifier.getParser().read();
+            if (algorithm.getType() != DerParser.OBJECT_IDENTIFIER) {
+                throw new InvalidKeySpecException("Invalid DER: the algorithm is not an object identifier");
+            }
+            oid = algorithm.getValue();
+        } catch (final IOException e) {
+            throw new InvalidKeySpecException(e.getMessage(), e);
+        }
+
+        for (final KeyFactories factory : values()) {
+            for (final byte[] candidate : factory.oids) {
+                if (Arrays.equals(candidate, oid)) {
+                    return factory;
+                }
+            }
+        }
+        throw new InvalidKeySpecException("Unsupported key algorithm");
+    }
+}
@@ -1,8 +1,11 @@
 package org.tomitribe.auth.signatures;
 
+/**
+ * A header listed in the signature is absent from the message. Thrown for every such message, so it carries no stack trace.
+ */
 public class MissingRequiredHeaderException extends AuthenticationException {
 
     public MissingRequiredHeaderException(final String key) {
-        super(key);
+        super(key, false);
     }
 }
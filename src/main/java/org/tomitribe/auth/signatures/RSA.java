@@ -4,11 +4,8 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.math.BigInteger;
-import java.security.KeyFactory;
-import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.PublicKey;
-import java.security.spec.EncodedKeySpec;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.RSAPrivateCrtKeySpec;
@@ -20,8 +17,6 @@ import java.security.spec.X509EncodedKeySpec;
 public enum RSA {
     ;
 
-    private static final String RSA = "RSA";
-
     /**
      * Returns a private key constructed from the given DER bytes in PKCS#8 format.
      * @param pkcs8 DER bytes in PKCS#8 format
@@ -29,13 +24,7 @@ public enum RSA {
      * @throws InvalidKeySpecException if DER bytes cannot be converted to a private key
      */
     public static PrivateKey privateKeyFromPKCS8(final byte[] pkcs8) throws InvalidKeySpecException {
-        try {
-            final EncodedKeySpec privateKeySpec = new PKCS8EncodedKeySpec(pkcs8);
-            final KeyFactory keyFactory = KeyFactory.getInstance(RSA);
-            return keyFactory.generatePrivate(privateKeySpec);
-        } catch (final NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
-        }
+        return KeyFactories.RSA.generatePrivate(new PKCS8EncodedKeySpec(pkcs8));
     }
 
     /**
@@ -47,12 +36,9 @@ public enum RSA {
     public static PrivateKey privateKeyFromPKCS1(final byte[] pkcs1) throws InvalidKeySpecException {
         try {
             final RSAPrivateCrtKeySpec privateKeySpec = newRSAPrivateCrtKeySpec(pkcs1);
-            final KeyFactory keyFactory = KeyFactory.getInstance(RSA);
-            return keyFactory.generatePrivate(privateKeySpec);
+            return KeyFactories.RSA.generatePrivate(privateKeySpec);
         } catch (final IOException e) {
             throw new IllegalArgumentException(e);
-        } catch (final NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
         }
     }
 
@@ -63,13 +49,7 @@ public enum RSA {
      * @throws InvalidKeySpecException if the DER bytes cannot be converted to a public key
      */
     public static PublicKey publicKeyFrom(final byte[] derBytes) throws InvalidKeySpecException {
-        try {
-            final KeyFactory keyFactory = KeyFactory.getInstance(RSA);
-            final EncodedKeySpec publicKeySpec = new X509EncodedKeySpec(derBytes);
-            return keyFactory.generatePublic(publicKeySpec);
-        } catch (final NoSuchAlgorithmException e) {
-            throw new IllegalStateException(e);
-        }
+        return KeyFactories.RSA.generatePublic(new X509EncodedKeySpec(derBytes));
     }
 
     // Extracted from:
@@ -56,8 +56,16 @@ public class Signature {
      * Signing: this field is calculated from the input data.
      * Verification: this field is parsed from the signature field in the
      * Authorization header.
+     *
+     * A signed instance only encodes it on demand from {@link #binarySignature}.
      */
-    private final String signature;
+    private String signature;
+
+    /**
+     * The raw signature bytes, set on the signing side only. They are encoded straight into the
+     * rendered header, without building the base 64 string first.
+     */
+    private final byte[] binarySignature;
 
     /**
      * OPTIONAL.  The `headers` parameter is used to specify the list of
@@ -72,6 +80,19 @@ public class Signature {
      */
     private final List<String> headers;
 
+    /**
+     * The {@link #headers} compiled once into signing string components.
+     */
+    private final List<SigningComponent> components;
+
+    /**
+     * The parameters which never change for a given template, rendered once:
+     * the `keyId` one, and the `algorithm` and `headers` ones followed by the
+     * opening of the `signature` one.
+     */
+    private final String keyIdParameter;
+    private final String trailingParameters;
+
     /**
      * OPTIONAL.  The `parameterSpec` is used to specify the cryptographic
      * parameters. Some cryptographic algorithm such as RSASSA-PSS
@@ -116,6 +137,19 @@ public class Signature {
         "(?<key>\\w+)=((\"(?<stringValue>[^\"]*)\")|(?<numberValue>\\d+[.,]?\\d*))"
     );
 
+    private static final String CREATED_PARAMETER = ",created=";
+    private static final String EXPIRES_PARAMETER = ",expires=";
+
+    /**
+     * Longest rendering of the seconds of a timestamp, with their sign.
+     */
+    private static final int MAX_SECONDS_LENGTH = String.valueOf(Long.MIN_VALUE).length();
+
+    /**
+     * Longest rendering of the milliseconds of the expiration time, see {@link Signatures#appendSeconds}.
+     */
+    private static final int MILLISECONDS_LENGTH = ".000".length();
+
     /**
      * The maximum time skew between the client and the server.
      * This is used to validate the (created) and (expires) fields in the HTTP signature.
@@ -298,6 +332,7 @@ public class Signature {
         // this is the only one that can be null cause the object
         // can be used as a template/specification
         this.signature = signature;
+        this.binarySignature = null;
 
         this.parameterSpec = parameterSpec;
 
@@ -306,6 +341,30 @@ public class Signature {
         } else {
             this.headers = Collections.unmodifiableList(lowercase(Optional.ofNullable(headers).orElseGet(List::of)));
         }
+        this.components = SigningComponent.compile(this.headers);
+        this.keyIdParameter = "keyId=\"" + keyId + '"';
+        this.trailingParameters =
+            ",algorithm=\"" + renderedAlgorithm() + "\",headers=\"" + String.join(" ", this.headers) + "\",signature=\"";
+    }
+
+    /**
+     * Create a signature sharing the configuration of the given template, without validating
+     * nor lowercasing its headers again.
+     */
+    Signature(final Signature template, final byte[] binarySignature, final Long signatureCreatedTime, final Long signatureExpiresTime) {
+        this.keyId = template.keyId;
+        this.signingAlgorithm = template.signingAlgorithm;
+        this.algorithm = template.algorithm;
+        this.parameterSpec = template.parameterSpec;
+        this.headers = template.headers;
+        this.components = template.components;
+        this.keyIdParameter = template.keyIdParameter;
+        this.trailingParameters = template.trailingParameters;
+        this.maxSignatureValidityDuration = null;
+        this.signatureCreatedTime = signatureCreatedTime;
+        this.signatureExpiresTime = signatureExpiresTime;
+        this.signature = null;
+        this.binarySignature = binarySignature;
     }
 
     /**
@@ -392,6 +451,10 @@ public class Signature {
      * @return the base-64 encoded value of the signature.
      */
     public String getSignature() {
+        // racy but idempotent, like String.hashCode
+        if (signature == null && binarySignature != null) {
+            signature = Base64.encodeToString(binarySignature);
+        }
         return signature;
     }
 
@@ -408,6 +471,15 @@ public class Signature {
         return headers;
     }
 
+    /**
+     * Returns the headers compiled into signing string components, in signing order.
+     *
+     * @return the signing string components.
+     */
+    public List<SigningComponent> getComponents() {
+        return components;
+    }
+
     /**
      * Verify the signature is valid with regards to the (created) and (expires) fields.
      *
@@ -635,36 +707,47 @@ public class Signature {
     }
 
     public String toString(final String prefix) {
-        final Object alg;
+        final boolean withCreated = signatureCreatedTime != null && headers.contains("(created)");
+        final boolean withExpires = signatureExpiresTime != null && headers.contains("(expires)");
+        final String encoded = signature;
+        final String value = encoded != null || binarySignature == null ? String.valueOf(encoded) : null;
+
+        final StringBuilder header = new StringBuilder(
+            (prefix != null ? prefix.length() + 1 : 0) +
+            keyIdParameter.length() +
+            (withCreated ? CREATED_PARAMETER.length() + MAX_SECONDS_LENGTH : 0) +
+            (withExpires ? EXPIRES_PARAMETER.length() + MAX_SECONDS_LENGTH + MILLISECONDS_LENGTH : 0) +
+            trailingParameters.length() +
+            (value != null ? value.length() : Base64.encodedLength(binarySignature.length)) +
+            1
+        );
+        if (prefix != null) {
+            header.append(prefix).append(' ');
+        }
+        header.append(keyIdParameter);
+        if (withCreated) {
+            header.append(CREATED_PARAMETER).append(signatureCreatedTime / 1000L);
+        }
+        if (withExpires) {
+            Signatures.appendSeconds(header.append(EXPIRES_PARAMETER), signatureExpiresTime);
+        }
+        header.append(trailingParameters);
+        if (value != null) {
+            header.append(value);
+        } else {
+            Base64.encode(binarySignature, header);
+        }
+        return header.append('"').toString();
+    }
+
+    private Object renderedAlgorithm() {
         if (SigningAlgorithm.HS2019.equals(signingAlgorithm)) {
             // When the signing algorithm is set to 'hs2019', the value of the algorithm
             // field must be set to 'hs2019'. The specific crypto algorithm is not
             // serialized in the 'Authorization' header, the server must derive the value
             // from the keyId.
-            alg = signingAlgorithm;
-        } else {
-            alg = algorithm;
+            return signingAlgorithm;
         }
-        return (
-            (prefix != null ? prefix + " " : "") +
-            "keyId=\"" +
-            keyId +
-            '\"' +
-            (signatureCreatedTime != null && headers.contains("(created)")
-                    ? String.format(",created=%d", signatureCreatedTime / 1000L)
-                    : "") +
-            (signatureExpiresTime != null && headers.contains("(expires)")
-                    ? String.format(",expires=%.3f", signatureExpiresTime / 1000.0)
-                    : "") +
-            ",algorithm=\"" +
-            alg +
-            '\"' +
-            ",headers=\"" +
-            Join.join(" ", headers) +
-            '\"' +
-            ",signature=\"" +
-            signature +
-            '\"'
-        );
+        return algorithm;
     }
 }
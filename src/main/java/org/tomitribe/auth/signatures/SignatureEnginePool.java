@@ -0,0 +1,104 @@
+package org.tomitribe.auth.signatures;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded, lock-free pool of {@link java.security.Signature} engines already initialized for
+ * signing with a given algorithm, key and parameter spec.
+ * <p>
+ * {@link java.security.Signature#sign()} resets the engine to the state it was in right after
+ * {@code initSign}, so a released engine can be borrowed again without any provider lookup or
+ * key setup.
+ */
+public class SignatureEnginePool {
+
+    private final Supplier<java.security.Signature> factory;
+    private final EnginePoolOptions options;
+    private final Queue<java.security.Signature> idle = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    SignatureEnginePool(final Supplier<java.security.Signature> factory, final EnginePoolOptions options) {
+        this.factory = factory;
+        this.options = options;
+    }
+
+    java.security.Signature borrow() {
+        final java.security.Signature engine = idle.poll();
+        if (engine != null) {
+            idleCount.decrementAndGet();
+            inUse.incrementAndGet();
+            return engine;
+        }
+
+        if (options.getOnExhausted() == EnginePoolOptions.OnExhausted.FAIL) {
+            int current;
+            do {
+                current = inUse.get();
+                if (current >= options.getMaxSize()) {
+                    rejected.increment();
+                    throw new EnginePoolExhaustedException("All " + options.getMaxSize() + " signature engines are in use");
+                }
+            } while (!inUse.compareAndSet(current, current + 1));
+        } else {
+            inUse.incrementAndGet();
+        }
+
+        try {
+            return factory.get();
+        } catch (final RuntimeException e) {
+            inUse.decrementAndGet();
+            throw e;
+        }
+    }
+
+    void release(final java.security.Signature engine) {
+        inUse.decrementAndGet();
+        int current;
+        do {
+            current = idleCount.get();
+            if (current >= options.getMaxSize()) {
+                // the pool is full, let this extra engine be garbage collected
+                return;
+            }
+        } while (!idleCount.compareAndSet(current, current + 1));
+        idle.offer(engine);
+    }
+
+    /**
+     * Drop an engine whose state is unknown, for instance after a failed signature.
+     */
+    void discard(final java.security.Signature engine) {
+        inUse.decrementAndGet();
+    }
+
+    public int getMaxSize() {
+        return options.getMaxSize();
+    }
+
+    /**
+     * @return the number of initialized engines waiting to be borrowed
+     */
+    public int getIdle() {
+        return idleCount.get();
+    }
+
+    /**
+     * @return the number of engines currently borrowed for a signature
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    /**
+     * @return the number of signatures rejected because the pool was exhausted
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
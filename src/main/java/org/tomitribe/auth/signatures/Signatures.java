@@ -1,14 +1,25 @@
 package org.tomitribe.auth.signatures;
 
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public enum Signatures {
     ;
 
+    // Stackless, hence shared by all the messages rejected for the same reason
+    private static final InvalidCreatedFieldException CREATED_NOT_SET = new InvalidCreatedFieldException(
+        "(created) field requested but signature creation time is not set"
+    );
+    private static final InvalidExpiresFieldException EXPIRES_NOT_SET = new InvalidExpiresFieldException(
+        "(expires) field requested but signature expiration time is not set"
+    );
+
     /**
      * Create a canonicalized string representation of the HTTP request. It is used
      * as the input to calculate the signature of the HTTP request.
@@ -80,49 +91,248 @@ public enum Signatures {
         final Long signatureExpiryTime,
         String payload
     ) {
-        headers = lowercase(headers);
-
-        final List<String> list = new ArrayList<>(payload != null ? required.size() + 1 : required.size());
-        list.add(payload);
-
-        for (final String key : required) {
-            if ("(request-target)".equals(key)) {
-                method = lowercase(method);
-                list.add(Join.join(" ", "(request-target):", method, uri));
-            } else if ("(created)".equals(key)) {
-                // The "created" parameter contains the signature's Creation Time.
-                // This parameter is useful when signers are not capable of controlling
-                // the "Date" HTTP Header such as when operating in certain web
-                // browser environments.
-                // Its canonicalized value is an Integer String containing the
-                // signature's Creation Time expressed as the number of seconds since
-                // the Epoch
-                if (signatureCreationTime == null) {
-                    throw new InvalidCreatedFieldException("(created) field requested but signature creation time is not set");
-                }
-                list.add(key + ": " + Long.toString(TimeUnit.MILLISECONDS.toSeconds(signatureCreationTime)));
-            } else if ("(expires)".equals(key)) {
-                // The "expires" parameter contains the signature's Expiration Time.
-                // If the signature does not have an Expiration Time, this parameter "MUST"
-                // be omitted.  If not specified, the signature's Expiration Time is
-                // undefined.
-                // Its canonicalized value is a Decimal String containing the
-                // signature's Expiration Time expressed as the number of seconds since
-                // the Epoch.
-                if (signatureExpiryTime == null) {
-                    throw new InvalidExpiresFieldException("(expires) field requested but signature expiration time is not set");
-                }
-                final double expires = signatureExpiryTime / 1000.0;
-                list.add(key + ": " + String.format("%.3f", expires));
-            } else {
-                final String value = headers.get(key);
-                if (value == null) throw new MissingRequiredHeaderException(key);
-
-                list.add(key + ": " + value);
+        final SigningStringSink.StringSink sink = SigningStringSink.toStringSink();
+        writeSigningStringWithPayload(sink, required, method, uri, headers, signatureCreationTime, signatureExpiryTime, payload);
+        return sink.toString();
+    }
+
+    /**
+     * Write the canonicalized string representation of the HTTP request into the given sink.
+     * The written content is the same as the one returned by
+     * {@link #createSigningStringWithPayload(List, String, String, Map, Long, Long, String)}.
+     *
+     * @param sink The destination of the signing string, usually feeding the engine computing the signature.
+     * @param required The list of headers that should be included in the HTTP signature.
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     *            The value must already be encoded exactly as it will be sent in the
+     *            request line of the HTTP message. No URL encoding is performed by this method.
+     * @param headers A map of header names to header values.
+     * @param signatureCreationTime The signature creation time in milliseconds since the epoch.
+     * @param signatureExpiryTime The signature expiration time in milliseconds since the epoch.
+     * @param payload The payload to be included in the signing string. It is not associated with any header name.
+     */
+    public static void writeSigningStringWithPayload(
+        final SigningStringSink sink,
+        final List<String> required,
+        final String method,
+        final String uri,
+        final Map<String, String> headers,
+        final Long signatureCreationTime,
+        final Long signatureExpiryTime,
+        final String payload
+    ) {
+        writeSigningStringWithPayload(
+            sink,
+            SigningComponent.compile(required),
+            method,
+            uri,
+            headers,
+            signatureCreationTime,
+            signatureExpiryTime,
+            payload
+        );
+    }
+
+    /**
+     * Write the canonicalized string representation of the HTTP request into the given sink,
+     * walking components compiled beforehand, see {@link Signature#getComponents()}.
+     *
+     * @param sink The destination of the signing string, usually feeding the engine computing the signature.
+     * @param components The compiled components that should be included in the HTTP signature.
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     * @param headers A map of header names to header values.
+     * @param signatureCreationTime The signature creation time in milliseconds since the epoch.
+     * @param signatureExpiryTime The signature expiration time in milliseconds since the epoch.
+     * @param payload The payload to be included in the signing string. It is not associated with any header name.
+     */
+    public static void writeSigningStringWithPayload(
+        final SigningStringSink sink,
+        final Collection<SigningComponent> components,
+        final String method,
+        final String uri,
+        final Map<String, String> headers,
+        final Long signatureCreationTime,
+        final Long signatureExpiryTime,
+        final String payload
+    ) {
+        writeSigningStringWithPayload(
+            sink,
+            components,
+            method,
+            uri,
+            lookup(headers),
+            signatureCreationTime,
+            signatureExpiryTime,
+            payload
+        );
+    }
+
+    /**
+     * Write the canonicalized string representation of the HTTP request into the given sink,
+     * reading only the headers that are part of the signature.
+     *
+     * <p>
+     * When a header has several values, they are concatenated in order, separated by `, `,
+     * as required by the HTTP signatures specification.
+     *
+     * @param sink The destination of the signing string, usually feeding the engine computing the signature.
+     * @param components The compiled components that should be included in the HTTP signature.
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+     * @param signatureCreationTime The signature creation time in milliseconds since the epoch.
+     * @param signatureExpiryTime The signature expiration time in milliseconds since the epoch.
+     * @param payload The payload to be included in the signing string. It is not associated with any header name.
+     */
+    public static void writeSigningStringWithPayload(
+        final SigningStringSink sink,
+        final Collection<SigningComponent> components,
+        final String method,
+        final String uri,
+        final Function<String, List<String>> headers,
+        final Long signatureCreationTime,
+        final Long signatureExpiryTime,
+        final String payload
+    ) {
+        writeSigningStringWithPayload(
+            sink,
+            components,
+            method,
+            uri,
+            headers,
+            signatureCreationTime,
+            signatureExpiryTime,
+            payloadSink -> payloadSink.write(String.valueOf(payload))
+        );
+    }
+
+    /**
+     * Write the canonicalized string representation of the HTTP request into the given sink,
+     * the payload being written by the caller, usually as raw bytes.
+     *
+     * @param sink The destination of the signing string, usually feeding the engine computing the signature.
+     * @param components The compiled components that should be included in the HTTP signature.
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+     * @param signatureCreationTime The signature creation time in milliseconds since the epoch.
+     * @param signatureExpiryTime The signature expiration time in milliseconds since the epoch.
+     * @param payload Writes the payload, first part of the signing string, into the given sink.
+     */
+    public static void writeSigningStringWithPayload(
+        final SigningStringSink sink,
+        final Collection<SigningComponent> components,
+        final String method,
+        final String uri,
+        final Function<String, List<String>> headers,
+        final Long signatureCreationTime,
+        final Long signatureExpiryTime,
+        final Consumer<SigningStringSink> payload
+    ) {
+        payload.accept(sink);
+        writeComponents(sink, components, method, uri, headers, signatureCreationTime, signatureExpiryTime);
+    }
+
+    /**
+     * Write the signed components, which follow the payload in the signing string, into the given sink.
+     * Each component is preceded by a line feed. This allows signing a payload written beforehand, as it was streamed.
+     *
+     * @param sink The destination of the signing string, usually feeding the engine computing the signature.
+     * @param components The compiled components that should be included in the HTTP signature.
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+     * @param signatureCreationTime The signature creation time in milliseconds since the epoch.
+     * @param signatureExpiryTime The signature expiration time in milliseconds since the epoch.
+     */
+    public static void writeComponents(
+        final SigningStringSink sink,
+        final Collection<SigningComponent> components,
+        final String method,
+        final String uri,
+        final Function<String, List<String>> headers,
+        final Long signatureCreationTime,
+        final Long signatureExpiryTime
+    ) {
+        for (final SigningComponent component : components) {
+            sink.write('\n');
+            switch (component.getType()) {
+                case REQUEST_TARGET:
+                    sink.write(component.getLabel()).write(lowercase(method)).write(' ').write(String.valueOf(uri));
+                    break;
+                case CREATED:
+                    // The "created" parameter contains the signature's Creation Time.
+                    // This parameter is useful when signers are not capable of controlling
+                    // the "Date" HTTP Header such as when operating in certain web
+                    // browser environments.
+                    // Its canonicalized value is an Integer String containing the
+                    // signature's Creation Time expressed as the number of seconds since
+                    // the Epoch
+                    if (signatureCreationTime == null) {
+                        throw CREATED_NOT_SET;
+                    }
+                    sink.write(component.getLabel()).write(Long.toString(TimeUnit.MILLISECONDS.toSeconds(signatureCreationTime)));
+                    break;
+                case EXPIRES:
+                    // The "expires" parameter contains the signature's Expiration Time.
+                    // If the signature does not have an Expiration Time, this parameter "MUST"
+                    // be omitted.  If not specified, the signature's Expiration Time is
+                    // undefined.
+                    // Its canonicalized value is a Decimal String containing the
+                    // signature's Expiration Time expressed as the number of seconds since
+                    // the Epoch.
+                    if (signatureExpiryTime == null) {
+                        throw EXPIRES_NOT_SET;
+                    }
+                    sink.write(component.getLabel()).write(appendSeconds(new StringBuilder(24), signatureExpiryTime));
+                    break;
+                default:
+                    final List<String> values = headers.apply(component.getName());
+                    if (values == null || values.isEmpty()) throw component.getMissing();
+
+                    sink.write(component.getLabel()).write(values.get(0));
+                    for (int i = 1; i < values.size(); i++) {
+                        sink.write(", ").write(values.get(i));
+                    }
             }
         }
+    }
 
-        return Join.join("\n", list);
+    /**
+     * Append the given time as a number of seconds with three decimals, as <code>String.format("%.3f", milliseconds / 1000.0)</code>
+     * would in an English locale, without going through a double nor depending on the default locale.
+     *
+     * @param out The destination.
+     * @param milliseconds The time in milliseconds.
+     * @return the destination.
+     */
+    static StringBuilder appendSeconds(final StringBuilder out, final long milliseconds) {
+        final long seconds = milliseconds / 1000L;
+        final long fraction = Math.abs(milliseconds % 1000L);
+        if (milliseconds < 0 && seconds == 0) {
+            out.append('-');
+        }
+        out.append(seconds).append('.');
+        if (fraction < 100) {
+            out.append('0');
+        }
+        if (fraction < 10) {
+            out.append('0');
+        }
+        return out.append(fraction);
+    }
+
+    /**
+     * Adapt a single-valued header map to a lookup of lowercased header names.
+     */
+    private static Function<String, List<String>> lookup(final Map<String, String> headers) {
+        final Map<String, String> lowercased = lowercase(headers);
+        return name -> {
+            final String value = lowercased.get(name);
+            return value == null ? null : Collections.singletonList(value);
+        };
     }
 
     private static Map<String, String> lowercase(final Map<String, String> headers) {
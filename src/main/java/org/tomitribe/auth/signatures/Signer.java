@@ -8,7 +8,11 @@ import java.security.NoSuchAlgorithmException;
 import java.security.PrivateKey;
 import java.security.Provider;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.crypto.Mac;
 
 /**
@@ -36,13 +40,21 @@ public class Signer {
     }
 
     public Signer(final Key key, final Signature signature, final Provider provider) {
+        this(key, signature, provider, EnginePoolOptions.defaults());
+    }
+
+    /**
+     * @param poolOptions the sizing and exhaustion behavior of the pool of signature engines,
+     *                    only used by asymmetric algorithms.
+     */
+    public Signer(final Key key, final Signature signature, final Provider provider, final EnginePoolOptions poolOptions) {
         requireNonNull(key, "Key cannot be null");
         this.signature = requireNonNull(signature, "Signature cannot be null");
         this.algorithm = signature.getAlgorithm();
         this.provider = provider;
 
         if (java.security.Signature.class.equals(algorithm.getType())) {
-            this.sign = new Asymmetric(PrivateKey.class.cast(key));
+            this.sign = new Asymmetric(PrivateKey.class.cast(key), requireNonNull(poolOptions, "Pool options cannot be null"));
         } else if (Mac.class.equals(algorithm.getType())) {
             this.sign = new Symmetric(key);
         } else {
@@ -53,7 +65,7 @@ public class Signer {
 
         // check that the JVM really knows the algorithm we are going to use
         try {
-            sign.sign("validation".getBytes());
+            sign.sign(sink -> sink.write("validation"));
         } catch (final RuntimeException e) {
             throw (RuntimeException) e;
         } catch (final Exception e) {
@@ -102,28 +114,203 @@ public class Signer {
         Long expires,
         String payload
     ) throws IOException {
-        final String signingString = createSigningStringWithPayload(method, uri, headers, created, expires, payload);
-
-        final byte[] binarySignature = sign.sign(signingString.getBytes("UTF-8"));
+        return sign(
+            sink ->
+                Signatures.writeSigningStringWithPayload(sink, signature.getComponents(), method, uri, headers, created, expires, payload),
+            created,
+            expires
+        );
+    }
 
-        final byte[] encoded = Base64.encodeBase64(binarySignature);
+    /**
+     * Create and return a HTTP signature object configured with 'created' and 'expires' values,
+     * reading only the signed headers through the given lookup.
+     *
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     *            The value must already be encoded exactly as it will be sent in the
+     *            request line of the HTTP message. No URL encoding is performed by this method.
+     * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+     *                Multiple values are concatenated, separated by `, `.
+     * @param created the created timestamp
+     * @param expires the expires timestamp
+     * @param payload The payload to be included in the signing string.
+     *
+     * @return a Signature object containing the signed message.
+     */
+    public Signature signWithPayload(
+        final String method,
+        final String uri,
+        final Function<String, List<String>> headers,
+        Long created,
+        Long expires,
+        String payload
+    ) throws IOException {
+        return sign(
+            sink ->
+                Signatures.writeSigningStringWithPayload(sink, signature.getComponents(), method, uri, headers, created, expires, payload),
+            created,
+            expires
+        );
+    }
 
-        final String signedAndEncodedString = new String(encoded, "UTF-8");
+    /**
+     * Create and return a HTTP signature object, created now and reading only the signed headers through the given lookup.
+     *
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     *            The value must already be encoded exactly as it will be sent in the
+     *            request line of the HTTP message. No URL encoding is performed by this method.
+     * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+     *                Multiple values are concatenated, separated by `, `.
+     * @param payload The payload to be included in the signing string.
+     *
+     * @return a Signature object containing the signed message.
+     */
+    public Signature signWithPayload(
+        final String method,
+        final String uri,
+        final Function<String, List<String>> headers,
+        String payload
+    ) throws IOException {
+        final long created = System.currentTimeMillis();
+        return signWithPayload(method, uri, headers, created, expiresFrom(created), payload);
+    }
 
-        return new Signature(
-            signature.getKeyId(),
-            signature.getSigningAlgorithm(),
-            signature.getAlgorithm(),
-            signature.getParameterSpec(),
-            signedAndEncodedString,
-            signature.getHeaders(),
-            null,
+    /**
+     * Create and return a HTTP signature object configured with 'created' and 'expires' values,
+     * the payload being written by the caller, for instance straight from the message buffers
+     * without any charset conversion.
+     *
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     *            The value must already be encoded exactly as it will be sent in the
+     *            request line of the HTTP message. No URL encoding is performed by this method.
+     * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+     * @param created the created timestamp
+     * @param expires the expires timestamp
+     * @param payload Writes the payload into the sink feeding the signature engine.
+     *
+     * @return a Signature object containing the signed message.
+     */
+    public Signature signWithPayload(
+        final String method,
+        final String uri,
+        final Function<String, List<String>> headers,
+        Long created,
+        Long expires,
+        Consumer<SigningStringSink> payload
+    ) throws IOException {
+        return sign(
+            sink ->
+                Signatures.writeSigningStringWithPayload(sink, signature.getComponents(), method, uri, headers, created, expires, payload),
             created,
-            expires,
-            !signature.getHeaders().isEmpty()
+            expires
         );
     }
 
+    /**
+     * Create and return a HTTP signature object, created now, the payload being written by the caller.
+     *
+     * @param method The HTTP method.
+     * @param uri The path and query of the request target of the message.
+     *            The value must already be encoded exactly as it will be sent in the
+     *            request line of the HTTP message. No URL encoding is performed by this method.
+     * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+     * @param payload Writes the payload into the sink feeding the signature engine.
+     *
+     * @return a Signature object containing the signed message.
+     */
+    public Signature signWithPayload(
+        final String method,
+        final String uri,
+        final Function<String, List<String>> headers,
+        Consumer<SigningStringSink> payload
+    ) throws IOException {
+        final long created = System.currentTimeMillis();
+        return signWithPayload(method, uri, headers, created, expiresFrom(created), payload);
+    }
+
+    private Signature sign(final Consumer<SigningStringSink> signingString, final Long created, final Long expires) {
+        return signed(sign.sign(signingString), created, expires);
+    }
+
+    private Signature signed(final byte[] binarySignature, final Long created, final Long expires) {
+        // the signature is only encoded when rendered, straight into the header value
+        return new Signature(signature, binarySignature, created, expires);
+    }
+
+    /**
+     * Start the incremental signature of one message, whose payload is written chunk by chunk as it flows.
+     *
+     * <p>
+     * The session holds its own engine, so chunks may be written from any thread, one at a time.
+     * With asymmetric algorithms, the engine is created for the session rather than borrowed from the pool:
+     * a session lasts as long as the payload flows, and slow ones would otherwise starve the pool.
+     * It must end with either {@link Session#sign(String, String, Function)} or {@link Session#abort()}.
+     *
+     * @return a new signing session.
+     */
+    public Session newSession() {
+        return new Session(sign.open());
+    }
+
+    /**
+     * Incremental signature of one message: the payload comes first in the signing string,
+     * so it is written as it flows and the signed components are appended once the message is complete.
+     */
+    public final class Session {
+
+        private final Engine engine;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        private Session(final Engine engine) {
+            this.engine = engine;
+        }
+
+        /**
+         * @return the sink receiving the payload, in order.
+         */
+        public SigningStringSink payload() {
+            return engine.sink();
+        }
+
+        /**
+         * Append the signed components and compute the signature, created now.
+         *
+         * @param method The HTTP method.
+         * @param uri The path and query of the request target of the message.
+         * @param headers A case-insensitive lookup returning all the values of a header, or an empty list or null if it is missing.
+         *
+         * @return a Signature object containing the signed message.
+         */
+        public Signature sign(final String method, final String uri, final Function<String, List<String>> headers) {
+            if (!done.compareAndSet(false, true)) {
+                throw new IllegalStateException("Signing session is already over");
+            }
+            final long created = System.currentTimeMillis();
+            final Long expires = expiresFrom(created);
+            final byte[] binarySignature;
+            try {
+                Signatures.writeComponents(engine.sink(), signature.getComponents(), method, uri, headers, created, expires);
+                binarySignature = engine.finish();
+            } catch (final RuntimeException e) {
+                engine.abort();
+                throw e;
+            }
+            return signed(binarySignature, created, expires);
+        }
+
+        /**
+         * Give up the signature, for instance when the message failed or was cancelled. Does nothing once the session is over.
+         */
+        public void abort() {
+            if (done.compareAndSet(false, true)) {
+                engine.abort();
+            }
+        }
+    }
+
     /**
      * Create and return a HTTP signature object.
      *
@@ -153,11 +340,12 @@ public class Signer {
     public Signature signWithPayload(final String method, final String uri, final Map<String, String> headers, String payload)
         throws IOException {
         final long created = System.currentTimeMillis();
-        Long expires = signature.getSignatureMaxValidityMilliseconds();
-        if (expires != null) {
-            expires += created;
-        }
-        return signWithPayload(method, uri, headers, created, expires, payload);
+        return signWithPayload(method, uri, headers, created, expiresFrom(created), payload);
+    }
+
+    private Long expiresFrom(final long created) {
+        final Long maxValidity = signature.getSignatureMaxValidityMilliseconds();
+        return maxValidity != null ? created + maxValidity : null;
     }
 
     /**
@@ -228,20 +416,92 @@ public class Signer {
         );
     }
 
+    /**
+     * @return the pool of signature engines used by asymmetric algorithms, {@code null} for HMAC algorithms.
+     */
+    public SignatureEnginePool getEnginePool() {
+        return sign instanceof Asymmetric ? ((Asymmetric) sign).pool : null;
+    }
+
     private interface Sign {
-        byte[] sign(byte[] signingStringBytes);
+        /**
+         * @param signingString writes the signing string into the sink feeding the engine.
+         */
+        byte[] sign(Consumer<SigningStringSink> signingString);
+
+        /**
+         * @return an engine dedicated to one incremental signature.
+         */
+        Engine open();
+    }
+
+    private interface Engine {
+        SigningStringSink sink();
+
+        byte[] finish();
+
+        void abort();
     }
 
+    /**
+     * Signing with {@link java.security.Signature} engines borrowed from a pool, each of them
+     * initialized once with the key and parameter spec.
+     */
     private class Asymmetric implements Sign {
 
         private final PrivateKey key;
+        private final SignatureEnginePool pool;
 
-        private Asymmetric(final PrivateKey key) {
+        private Asymmetric(final PrivateKey key, final EnginePoolOptions poolOptions) {
             this.key = key;
+            this.pool = new SignatureEnginePool(this::newEngine, poolOptions);
         }
 
         @Override
-        public byte[] sign(final byte[] signingStringBytes) {
+        public byte[] sign(final Consumer<SigningStringSink> signingString) {
+            final java.security.Signature instance = pool.borrow();
+            final byte[] signed;
+            try {
+                signingString.accept(SigningStringSink.of(instance));
+                signed = instance.sign();
+            } catch (final RuntimeException e) {
+                // the engine may hold a partial signing string
+                pool.discard(instance);
+                throw e;
+            } catch (final Exception e) {
+                pool.discard(instance);
+                throw new IllegalStateException(e);
+            }
+            pool.release(instance);
+            return signed;
+        }
+
+        @Override
+        public Engine open() {
+            // not borrowed: the engine is held until the payload is complete, and dropped afterwards
+            final java.security.Signature instance = newEngine();
+            final SigningStringSink sink = SigningStringSink.of(instance);
+            return new Engine() {
+                @Override
+                public SigningStringSink sink() {
+                    return sink;
+                }
+
+                @Override
+                public byte[] finish() {
+                    try {
+                        return instance.sign();
+                    } catch (final Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public void abort() {}
+            };
+        }
+
+        private java.security.Signature newEngine() {
             try {
                 final java.security.Signature instance = provider == null
                     ? java.security.Signature.getInstance(algorithm.getJvmName())
@@ -250,8 +510,7 @@ public class Signer {
                     instance.setParameter(signature.getParameterSpec());
                 }
                 instance.initSign(key);
-                instance.update(signingStringBytes);
-                return instance.sign();
+                return instance;
             } catch (final NoSuchAlgorithmException e) {
                 throw new UnsupportedAlgorithmException(algorithm.getJvmName());
             } catch (final Exception e) {
@@ -260,22 +519,58 @@ public class Signer {
         }
     }
 
+    /**
+     * HMAC signing with one initialized {@link Mac} per thread.
+     * <p>
+     * The key is only set on a prototype engine at construction time; each thread gets its own copy of it,
+     * so signing does not go through the JCA provider lookup nor recompute the HMAC pads.
+     * {@link Mac#doFinal()} resets the engine, leaving it ready for the next message.
+     */
     private class Symmetric implements Sign {
 
         private final Key key;
+        private final Mac prototype;
+        private final ThreadLocal<MacEngine> macs;
 
         private Symmetric(final Key key) {
             this.key = key;
+            this.prototype = newMac();
+            this.macs = ThreadLocal.withInitial(() -> new MacEngine(copyPrototype()));
+        }
+
+        @Override
+        public byte[] sign(final Consumer<SigningStringSink> signingString) {
+            final MacEngine engine = macs.get();
+            try {
+                signingString.accept(engine.sink);
+                return engine.mac.doFinal();
+            } catch (final RuntimeException e) {
+                engine.mac.reset();
+                throw e;
+            }
         }
 
         @Override
-        public byte[] sign(final byte[] signingStringBytes) {
+        public Engine open() {
+            return new MacEngine(copyPrototype());
+        }
+
+        private Mac copyPrototype() {
+            try {
+                return (Mac) prototype.clone();
+            } catch (final CloneNotSupportedException e) {
+                // the provider does not support cloning, fallback on a freshly initialized engine
+                return newMac();
+            }
+        }
+
+        private Mac newMac() {
             try {
                 final Mac mac = provider == null
                     ? Mac.getInstance(algorithm.getJvmName())
                     : Mac.getInstance(algorithm.getJvmName(), provider);
                 mac.init(key);
-                return mac.doFinal(signingStringBytes);
+                return mac;
             } catch (final NoSuchAlgorithmException e) {
                 throw new UnsupportedAlgorithmException(algorithm.getJvmName());
             } catch (final Exception e) {
@@ -283,4 +578,30 @@ public class Signer {
             }
         }
     }
+
+    private static final class MacEngine implements Engine {
+
+        private final Mac mac;
+        private final SigningStringSink sink;
+
+        private MacEngine(final Mac mac) {
+            this.mac = mac;
+            this.sink = SigningStringSink.of(mac);
+        }
+
+        @Override
+        public SigningStringSink sink() {
+            return sink;
+        }
+
+        @Override
+        public byte[] finish() {
+            return mac.doFinal();
+        }
+
+        @Override
+        public void abort() {
+            mac.reset();
+        }
+    }
 }
@@ -0,0 +1,100 @@
+package org.tomitribe.auth.signatures;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One entry of the signing string, compiled once from the name listed in the
+ * `headers` signature parameter.
+ *
+ * <p>
+ * The pseudo-headers `(request-target)`, `(created)` and `(expires)` are resolved
+ * to a {@link Type} and every component carries its already rendered `name: ` label,
+ * so writing the signing string does not compare nor concatenate names anymore.
+ */
+public final class SigningComponent {
+
+    public enum Type {
+        REQUEST_TARGET,
+        CREATED,
+        EXPIRES,
+        HEADER,
+    }
+
+    private final Type type;
+    private final String name;
+    private final String label;
+    private volatile MissingRequiredHeaderException missing;
+
+    private SigningComponent(final Type type, final String name) {
+        this.type = type;
+        this.name = name;
+        this.label = name + ": ";
+    }
+
+    /**
+     * @param name the lowercased header or pseudo-header name.
+     * @return the compiled component.
+     */
+    public static SigningComponent of(final String name) {
+        switch (name) {
+            case "(request-target)":
+                return new SigningComponent(Type.REQUEST_TARGET, name);
+            case "(created)":
+                return new SigningComponent(Type.CREATED, name);
+            case "(expires)":
+                return new SigningComponent(Type.EXPIRES, name);
+            default:
+                return new SigningComponent(Type.HEADER, name);
+        }
+    }
+
+    /**
+     * @param names the lowercased header or pseudo-header names, in signing order.
+     * @return the unmodifiable list of compiled components, in the same order.
+     */
+    public static List<SigningComponent> compile(final List<String> names) {
+        final List<SigningComponent> components = new ArrayList<>(names.size());
+        for (final String name : names) {
+            components.add(of(name));
+        }
+        return Collections.unmodifiableList(components);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * @return the name of the component.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the name of the component followed by the `: ` separator, as written in the signing string.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * @return the exception thrown when the header is absent from the signed message, or <code>null</code> for a pseudo-header.
+     * It has no stack trace, so it is allocated on the first miss and thrown again for the next ones.
+     */
+    public MissingRequiredHeaderException getMissing() {
+        MissingRequiredHeaderException missing = this.missing;
+        if (missing == null && type == Type.HEADER) {
+            missing = new MissingRequiredHeaderException(name);
+            this.missing = missing;
+        }
+        return missing;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
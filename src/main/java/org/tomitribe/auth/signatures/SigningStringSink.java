@@ -0,0 +1,316 @@
+package org.tomitribe.auth.signatures;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.security.SignatureException;
+import javax.crypto.Mac;
+
+/**
+ * Destination of the canonicalized signing string.
+ *
+ * <p>
+ * The components of the signing string are written one after the other, UTF-8 encoded,
+ * straight into the {@link Mac} or {@link java.security.Signature} engine computing the
+ * signature, so the whole signing string never has to be materialized.
+ * {@link #toStringSink()} keeps the former behavior for callers who need the signing string itself.
+ */
+public abstract class SigningStringSink {
+
+    private static final int SCRATCH_SIZE = 1024;
+
+    private CharsetEncoder encoder;
+    private ByteBuffer scratch;
+
+    /**
+     * Write the UTF-8 representation of the given characters.
+     * Malformed input is replaced the same way {@link String#getBytes(java.nio.charset.Charset)} does.
+     */
+    public SigningStringSink write(final CharSequence chars) {
+        final int length = chars.length();
+        int i = 0;
+        // fast path for the ASCII prefix, which is the whole input for most headers
+        while (i < length) {
+            final byte[] bytes = scratch().array();
+            int count = 0;
+            while (i < length && count < bytes.length) {
+                final char c = chars.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                bytes[count++] = (byte) c;
+                i++;
+            }
+            if (count > 0) {
+                update(bytes, 0, count);
+            }
+            if (i < length && chars.charAt(i) >= 0x80) {
+                encode(CharBuffer.wrap(chars, i, length));
+                return this;
+            }
+        }
+        return this;
+    }
+
+    public SigningStringSink write(final char c) {
+        if (c < 0x80) {
+            update((byte) c);
+            return this;
+        }
+        return write(String.valueOf(c));
+    }
+
+    /**
+     * Write raw bytes, which must already be UTF-8 encoded.
+     */
+    public SigningStringSink write(final byte[] bytes, final int offset, final int length) {
+        update(bytes, offset, length);
+        return this;
+    }
+
+    /**
+     * Write the remaining raw bytes of the given buffer, which must already be UTF-8 encoded
+     * for the signing string to be printable. The buffer position is moved to its limit.
+     */
+    public SigningStringSink write(final ByteBuffer bytes) {
+        update(bytes);
+        return this;
+    }
+
+    /**
+     * Returns the number of bytes {@link #write(CharSequence)} feeds the engine with for the given characters,
+     * without encoding them. Unpaired surrogates count as the single byte of their replacement.
+     */
+    public static long utf8Length(final CharSequence chars) {
+        final int length = chars.length();
+        long bytes = length;
+        for (int i = 0; i < length; i++) {
+            final char c = chars.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                // 4 bytes for the 2 chars of the pair
+                bytes += 2;
+                i++;
+            }
+        }
+        return bytes;
+    }
+
+    protected abstract void update(byte b);
+
+    protected abstract void update(byte[] bytes, int offset, int length);
+
+    /**
+     * Feed the remaining bytes of the buffer, through the scratch buffer unless overridden.
+     */
+    protected void update(final ByteBuffer bytes) {
+        if (bytes.hasArray()) {
+            update(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+            bytes.position(bytes.limit());
+            return;
+        }
+        final byte[] chunk = scratch().array();
+        while (bytes.hasRemaining()) {
+            final int length = Math.min(chunk.length, bytes.remaining());
+            bytes.get(chunk, 0, length);
+            update(chunk, 0, length);
+        }
+    }
+
+    private void encode(final CharBuffer chars) {
+        final CharsetEncoder utf8 = encoder();
+        final ByteBuffer out = scratch();
+        utf8.reset();
+        CoderResult result;
+        do {
+            out.clear();
+            result = utf8.encode(chars, out, true);
+            if (result.isError()) {
+                throw new IllegalStateException("Unable to encode the signing string: " + result);
+            }
+            update(out.array(), 0, out.position());
+        } while (result.isOverflow());
+        do {
+            out.clear();
+            result = utf8.flush(out);
+            update(out.array(), 0, out.position());
+        } while (result.isOverflow());
+    }
+
+    private CharsetEncoder encoder() {
+        if (encoder == null) {
+            encoder =
+                StandardCharsets.UTF_8.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+        return encoder;
+    }
+
+    private ByteBuffer scratch() {
+        if (scratch == null) {
+            scratch = ByteBuffer.allocate(SCRATCH_SIZE);
+        }
+        return scratch;
+    }
+
+    /**
+     * @return a sink feeding the given {@link Mac}, which must already be initialized.
+     */
+    public static SigningStringSink of(final Mac mac) {
+        return new SigningStringSink() {
+            @Override
+            protected void update(final byte b) {
+                mac.update(b);
+            }
+
+            @Override
+            protected void update(final byte[] bytes, final int offset, final int length) {
+                mac.update(bytes, offset, length);
+            }
+
+            @Override
+            protected void update(final ByteBuffer bytes) {
+                mac.update(bytes);
+            }
+        };
+    }
+
+    /**
+     * @return a sink feeding the given {@link java.security.Signature}, which must already be initialized for signing.
+     */
+    public static SigningStringSink of(final java.security.Signature signature) {
+        return new SigningStringSink() {
+            @Override
+            protected void update(final byte b) {
+                try {
+                    signature.update(b);
+                } catch (final SignatureException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            protected void update(final byte[] bytes, final int offset, final int length) {
+                try {
+                    signature.update(bytes, offset, length);
+                } catch (final SignatureException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            protected void update(final ByteBuffer bytes) {
+                try {
+                    signature.update(bytes);
+                } catch (final SignatureException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * @return a sink collecting the signing string, mostly useful for debugging.
+     */
+    public static StringSink toStringSink() {
+        return new StringSink();
+    }
+
+    /**
+     * Sink building the signing string as a {@link String}.
+     * <p>
+     * Raw bytes are decoded as they come, the bytes of a character split across two writes being kept until the next one.
+     */
+    public static final class StringSink extends SigningStringSink {
+
+        private final StringBuilder builder = new StringBuilder();
+        private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        // At most the first 3 bytes of a UTF-8 character
+        private final ByteBuffer pending = ByteBuffer.allocate(4);
+        private CharBuffer decoded;
+
+        private StringSink() {}
+
+        @Override
+        public SigningStringSink write(final CharSequence chars) {
+            endBytes();
+            builder.append(chars);
+            return this;
+        }
+
+        @Override
+        public SigningStringSink write(final char c) {
+            endBytes();
+            builder.append(c);
+            return this;
+        }
+
+        @Override
+        protected void update(final byte b) {
+            update(new byte[] { b }, 0, 1);
+        }
+
+        @Override
+        protected void update(final byte[] bytes, final int offset, final int length) {
+            ByteBuffer in = ByteBuffer.wrap(bytes, offset, length);
+            if (pending.position() > 0) {
+                in = ByteBuffer.allocate(pending.position() + length).put(pending.flip()).put(in).flip();
+                pending.clear();
+            }
+            decode(in, false);
+            pending.put(in);
+        }
+
+        /**
+         * Decode the bytes of an incomplete character left by the last write, replacing them, before characters are written.
+         */
+        private void endBytes() {
+            if (pending.position() == 0) {
+                return;
+            }
+            decode(pending.flip(), true);
+            pending.clear();
+            final CharBuffer out = decoded();
+            decoder.flush(out);
+            builder.append(out.flip());
+            decoder.reset();
+        }
+
+        private void decode(final ByteBuffer in, final boolean endOfInput) {
+            final CharBuffer out = decoded();
+            CoderResult result;
+            do {
+                out.clear();
+                result = decoder.decode(in, out, endOfInput);
+                builder.append(out.flip());
+            } while (result.isOverflow());
+            out.clear();
+        }
+
+        private CharBuffer decoded() {
+            if (decoded == null) {
+                decoded = CharBuffer.allocate(SCRATCH_SIZE);
+            }
+            return decoded;
+        }
+
+        @Override
+        public String toString() {
+            endBytes();
+            return builder.toString();
+        }
+    }
+}
@@ -100,7 +100,7 @@ public class Verifier {
                 }
                 instance.initVerify(key);
                 instance.update(signingStringBytes);
-                return instance.verify(Base64.decodeBase64(signature.getSignature().getBytes()));
+                return instance.verify(Base64.decodeBase64(signature.getSignature()));
             } catch (final NoSuchAlgorithmException e) {
                 throw new UnsupportedAlgorithmException(algorithm.getJvmName());
             } catch (final Exception e) {
@@ -17,6 +17,7 @@ package io.gravitee.policy.generatehttpsignature;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowableOfType;
 
 import io.gravitee.policy.generatehttpsignature.configuration.Algorithm;
 import io.gravitee.policy.generatehttpsignature.configuration.GenerateHttpSignaturePolicyConfiguration;
@@ -135,6 +136,33 @@ class AdditionalHeadersProcessorTest {
             .hasMessage("Required header 'X-Header-2' is missing");
     }
 
+    @Test
+    void shouldThrowTheSameStacklessExceptionForEachMissingHeader() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .algorithm(Algorithm.HMAC_SHA256)
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .headers(List.of("X-Required-Header"))
+            .headersDelimiter(":")
+            .prependHeadersToBody(true)
+            .build();
+
+        AdditionalHeadersProcessor processor = new AdditionalHeadersProcessor(configuration);
+
+        AdditionalHeadersProcessor.InvalidHeadersException first = catchThrowableOfType(
+            () -> processor.prefix(header -> null),
+            AdditionalHeadersProcessor.InvalidHeadersException.class
+        );
+        AdditionalHeadersProcessor.InvalidHeadersException second = catchThrowableOfType(
+            () -> processor.prefix(header -> null),
+            AdditionalHeadersProcessor.InvalidHeadersException.class
+        );
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.getStackTrace()).isEmpty();
+        first.addSuppressed(new IllegalStateException());
+        assertThat(second.getSuppressed()).isEmpty();
+    }
+
     @Test
     void shouldHandleEmptyPayload() {
         configuration = GenerateHttpSignaturePolicyConfiguration.builder()
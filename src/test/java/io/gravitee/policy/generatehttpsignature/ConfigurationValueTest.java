@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import io.gravitee.el.TemplateEngine;
+import io.reactivex.rxjava3.core.Maybe;
+import org.junit.jupiter.api.Test;
+
+class ConfigurationValueTest {
+
+    @Test
+    void shouldResolveLiteralWithoutTemplateEngine() {
+        TemplateEngine templateEngine = mock(TemplateEngine.class);
+        ConfigurationValue value = ConfigurationValue.of("my-secret-key");
+
+        assertThat(value.isLiteral()).isTrue();
+        value.resolve(() -> templateEngine).test().assertValue("my-secret-key");
+        verifyNoInteractions(templateEngine);
+    }
+
+    @Test
+    void shouldResolveMissingValueAsEmpty() {
+        ConfigurationValue value = ConfigurationValue.of(null);
+
+        assertThat(value.isLiteral()).isTrue();
+        value.resolve(() -> null).test().assertComplete().assertNoValues();
+    }
+
+    @Test
+    void shouldEvaluateExpression() {
+        TemplateEngine templateEngine = mock(TemplateEngine.class);
+        when(templateEngine.eval("{#context.attributes['secret']}", String.class)).thenReturn(Maybe.just("resolved"));
+        ConfigurationValue value = ConfigurationValue.of("{#context.attributes['secret']}");
+
+        assertThat(value.isLiteral()).isFalse();
+        value.resolve(() -> templateEngine).test().assertValue("resolved");
+    }
+}
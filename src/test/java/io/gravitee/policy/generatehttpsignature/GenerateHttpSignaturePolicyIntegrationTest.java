@@ -22,18 +22,32 @@ import static org.mockito.Mockito.*;
 
 import io.gravitee.el.TemplateEngine;
 import io.gravitee.gateway.api.buffer.Buffer;
+import io.gravitee.gateway.api.http.HttpHeaderNames;
 import io.gravitee.gateway.api.http.HttpHeaders;
 import io.gravitee.gateway.reactive.api.ExecutionFailure;
 import io.gravitee.gateway.reactive.api.context.http.*;
+import io.gravitee.gateway.reactive.api.message.DefaultMessage;
 import io.gravitee.gateway.reactive.api.message.Message;
 import io.gravitee.policy.generatehttpsignature.configuration.Algorithm;
 import io.gravitee.policy.generatehttpsignature.configuration.GenerateHttpSignaturePolicyConfiguration;
 import io.gravitee.policy.generatehttpsignature.configuration.HttpSignatureScheme;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import io.reactivex.rxjava3.core.Completable;
+import io.reactivex.rxjava3.core.Flowable;
+import io.reactivex.rxjava3.core.FlowableTransformer;
 import io.reactivex.rxjava3.core.Maybe;
 import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.processors.PublishProcessor;
+import io.reactivex.rxjava3.subscribers.TestSubscriber;
+import io.vertx.core.Vertx;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -88,11 +102,9 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String payload = "{\"event\":\"user.created\",\"userId\":123}";
         String secret = "my-secret-key";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
 
         ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
         TestObserver<Void> testObserver = policy.onResponse(plainContext).test();
@@ -106,6 +118,390 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         assertThat(generatedSignature).isEqualTo(expectedSignature);
     }
 
+    @Test
+    @DisplayName("Should sign binary payload bytes as they are")
+    void shouldSignBinaryPayloadBytes() throws Exception {
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+
+        byte[] head = { (byte) 0x1f, (byte) 0x8b, (byte) 0x08, (byte) 0x00 };
+        byte[] tail = { (byte) 0xff, (byte) 0xfe, (byte) 0x80, (byte) 0x00, (byte) 0xc3 };
+        String secret = "my-secret-key";
+
+        when(buffer.getNativeBuffer()).thenReturn(Unpooled.wrappedBuffer(Unpooled.wrappedBuffer(head), Unpooled.wrappedBuffer(tail)));
+        doReturn(mockResponse(buffer)).when(plainContext).response();
+        doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
+
+        ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
+        policy.onResponse(plainContext).test().assertComplete();
+        verify(httpHeaders).set(eq("X-HMAC-Signature"), signatureCaptor.capture());
+
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(), "HmacSHA256"));
+        mac.update(head);
+        String expected = Base64.getEncoder().encodeToString(mac.doFinal(tail));
+        assertThat(signatureCaptor.getValue()).contains("signature=\"" + expected + "\"");
+    }
+
+    @Test
+    @DisplayName("Should sign the response payload by default, even without signPayload")
+    void shouldSignResponsePayloadByDefault() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+        String payload = "{\"event\":\"user.created\"}";
+        String secret = "my-secret-key";
+
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
+        doReturn(mockResponse(buffer)).when(plainContext).response();
+        doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
+
+        ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
+        policy.onResponse(plainContext).test().assertComplete();
+
+        verify(httpHeaders).set(eq("X-HMAC-Signature"), signatureCaptor.capture());
+        assertThat(signatureCaptor.getValue()).isEqualTo(generateExpectedSignature("my-key-id", payload, secret, Algorithm.HMAC_SHA256));
+    }
+
+    @Test
+    @DisplayName("Should sign response headers without buffering the response body")
+    void shouldSignResponseHeadersWithoutBufferingBody() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .signPayload(false)
+            .signResponseHeadersOnly(true)
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+        String secret = "my-secret-key";
+
+        HttpPlainResponse response = mock(HttpPlainResponse.class);
+        doReturn(httpHeaders).when(response).headers();
+        doReturn(response).when(plainContext).response();
+        doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
+
+        ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
+        // The body is neither requested nor transformed, it is left for the gateway to stream as is
+        policy.onResponse(plainContext).test().assertComplete();
+
+        verify(response, never()).body();
+        verify(response, never()).chunks();
+        verify(response, never()).onChunks(any());
+        verify(httpHeaders).set(eq("X-HMAC-Signature"), signatureCaptor.capture());
+        assertThat(signatureCaptor.getValue()).isEqualTo(generateExpectedSignature("my-key-id", "", secret, Algorithm.HMAC_SHA256));
+    }
+
+    @Test
+    @DisplayName("Should let the first chunk of a large response through before the upstream completes when signing headers only")
+    void shouldEmitFirstChunkBeforeUpstreamCompletesWhenSigningHeadersOnly() {
+        final int chunkCount = 64;
+        final byte[] chunk = new byte[64 * 1024];
+        Arrays.fill(chunk, (byte) 'a');
+
+        // Header-only signature: the response is released right away, and its chunks flow to the client as they arrive
+        GenerateHttpSignaturePolicy headersOnly = new GenerateHttpSignaturePolicy(
+            GenerateHttpSignaturePolicyConfiguration.builder()
+                .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+                .algorithm(Algorithm.HMAC_SHA256)
+                .keyId("my-key-id")
+                .secret("my-secret-key")
+                .targetSignatureHeader("X-HMAC-Signature")
+                .signPayload(false)
+                .signResponseHeadersOnly(true)
+                .build()
+        );
+        PublishProcessor<Buffer> upstream = PublishProcessor.create();
+        HttpHeaders headers = HttpHeaders.create();
+        HttpPlainResponse response = mock(HttpPlainResponse.class);
+        doReturn(headers).when(response).headers();
+        doReturn(upstream).when(response).chunks();
+        doReturn(response).when(plainContext).response();
+        doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
+
+        headersOnly.onResponse(plainContext).test().assertComplete();
+        TestSubscriber<Buffer> client = response.chunks().test();
+        upstream.onNext(Buffer.buffer(chunk));
+
+        client.assertValueCount(1).assertNotComplete();
+        assertThat(headers.get("X-HMAC-Signature")).isNotNull();
+        for (int i = 1; i < chunkCount; i++) {
+            upstream.onNext(Buffer.buffer(chunk));
+        }
+        upstream.onComplete();
+        client.assertValueCount(chunkCount).assertComplete();
+
+        // Buffered signature: the response is held until the whole body is received and signed
+        GenerateHttpSignaturePolicy buffered = new GenerateHttpSignaturePolicy(configuration);
+        PublishProcessor<Buffer> bufferedUpstream = PublishProcessor.create();
+        HttpHeaders bufferedHeaders = HttpHeaders.create();
+        HttpPlainResponse bufferedResponse = mock(HttpPlainResponse.class);
+        doReturn(bufferedHeaders).when(bufferedResponse).headers();
+        doReturn(bufferedUpstream.reduce(Buffer::appendBuffer)).when(bufferedResponse).body();
+        doReturn(bufferedResponse).when(plainContext).response();
+
+        TestObserver<Void> bufferedObserver = buffered.onResponse(plainContext).test();
+        bufferedUpstream.onNext(Buffer.buffer(chunk));
+
+        bufferedObserver.assertNotComplete();
+        assertThat(bufferedHeaders.get("X-HMAC-Signature")).isNull();
+        for (int i = 1; i < chunkCount; i++) {
+            bufferedUpstream.onNext(Buffer.buffer(chunk));
+        }
+        bufferedUpstream.onComplete();
+        bufferedObserver.assertComplete();
+        assertThat(bufferedHeaders.get("X-HMAC-Signature")).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Should sign streamed response chunks into a trailer")
+    void shouldSignStreamedChunksIntoTrailer() throws Exception {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .signPayload(true)
+            .streamResponsePayload(true)
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+        String secret = "my-secret-key";
+
+        Buffer first = mock(Buffer.class);
+        Buffer second = mock(Buffer.class);
+        when(first.getNativeBuffer()).thenReturn(nativeBuffer("{\"event\":"));
+        when(second.getNativeBuffer()).thenReturn(nativeBuffer("\"user.created\"}"));
+        HttpHeaders trailers = mock(HttpHeaders.class);
+        HttpPlainResponse response = mock(HttpPlainResponse.class);
+        doReturn(httpHeaders).when(response).headers();
+        doReturn(trailers).when(response).trailers();
+        List<Buffer> sent = new ArrayList<>();
+        doAnswer(invocation -> {
+                FlowableTransformer<Buffer, Buffer> transformer = invocation.getArgument(0);
+                return Flowable.just(first, second).compose(transformer).doOnNext(sent::add).ignoreElements();
+            })
+            .when(response)
+            .onChunks(any());
+        doReturn(response).when(plainContext).response();
+        HttpPlainRequest request = mock(HttpPlainRequest.class);
+        HttpHeaders requestHeaders = mock(HttpHeaders.class);
+        doReturn(requestHeaders).when(request).headers();
+        when(requestHeaders.getAll("TE")).thenReturn(List.of("trailers"));
+        doReturn(request).when(plainContext).request();
+
+        ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
+        policy.onResponse(plainContext).test().assertComplete();
+
+        assertThat(sent).containsExactly(first, second);
+        verify(httpHeaders).add(HttpHeaderNames.TRAILER, "X-HMAC-Signature");
+        verify(httpHeaders, never()).set(eq("X-HMAC-Signature"), anyString());
+        verify(trailers).set(eq("X-HMAC-Signature"), signatureCaptor.capture());
+        assertThat(signatureCaptor.getValue()).isEqualTo(
+            generateExpectedSignature("my-key-id", "{\"event\":\"user.created\"}", secret, Algorithm.HMAC_SHA256)
+        );
+    }
+
+    @Test
+    @DisplayName("Should remove the Content-Length of a streamed response so that it is sent chunked along with its trailer")
+    void shouldRemoveContentLengthOfStreamedResponse() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .signPayload(true)
+            .streamResponsePayload(true)
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+        String secret = "my-secret-key";
+        String payload = "{\"event\":\"user.created\"}";
+
+        Buffer chunk = mock(Buffer.class);
+        when(chunk.getNativeBuffer()).thenReturn(nativeBuffer(payload));
+        HttpHeaders headers = HttpHeaders.create().set(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(payload.length()));
+        HttpHeaders trailers = HttpHeaders.create();
+        HttpPlainResponse response = mock(HttpPlainResponse.class);
+        doReturn(headers).when(response).headers();
+        doReturn(trailers).when(response).trailers();
+        doAnswer(invocation -> {
+                FlowableTransformer<Buffer, Buffer> transformer = invocation.getArgument(0);
+                return Flowable.just(chunk).compose(transformer).ignoreElements();
+            })
+            .when(response)
+            .onChunks(any());
+        doReturn(response).when(plainContext).response();
+        HttpPlainRequest request = mock(HttpPlainRequest.class);
+        doReturn(HttpHeaders.create().set("TE", "trailers")).when(request).headers();
+        doReturn(request).when(plainContext).request();
+
+        policy.onResponse(plainContext).test().assertComplete();
+
+        assertThat(headers.contains(HttpHeaderNames.CONTENT_LENGTH)).isFalse();
+        assertThat(headers.get(HttpHeaderNames.TRAILER)).isEqualTo("X-HMAC-Signature");
+        assertThat(trailers.get("X-HMAC-Signature")).isEqualTo(
+            generateExpectedSignature("my-key-id", payload, secret, Algorithm.HMAC_SHA256)
+        );
+    }
+
+    @Test
+    @DisplayName("Should buffer the streamed response and sign it into a header when its Content-Length is signed")
+    void shouldSignIntoHeaderWhenContentLengthIsSigned() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .headers(List.of("Content-Length"))
+            .signHeaders(true)
+            .signPayload(true)
+            .streamResponsePayload(true)
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+        String payload = "{\"event\":\"user.created\"}";
+
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
+        HttpHeaders headers = HttpHeaders.create().set(HttpHeaderNames.CONTENT_LENGTH, String.valueOf(payload.length()));
+        HttpPlainResponse response = mock(HttpPlainResponse.class);
+        doReturn(Maybe.just(buffer)).when(response).body();
+        doReturn(headers).when(response).headers();
+        doReturn(response).when(plainContext).response();
+        HttpPlainRequest request = mock(HttpPlainRequest.class);
+        doReturn(HttpHeaders.create().set("TE", "trailers")).when(request).headers();
+        doReturn(request).when(plainContext).request();
+
+        policy.onResponse(plainContext).test().assertComplete();
+
+        verify(response, never()).onChunks(any());
+        assertThat(headers.get(HttpHeaderNames.CONTENT_LENGTH)).isEqualTo(String.valueOf(payload.length()));
+        assertThat(headers.contains(HttpHeaderNames.TRAILER)).isFalse();
+        assertThat(headers.get("X-HMAC-Signature")).contains("headers=\"content-length\"");
+    }
+
+    @Test
+    @DisplayName("Should buffer the streamed response and sign it into a header when the client does not read trailers")
+    void shouldSignIntoHeaderWhenClientDoesNotReadTrailers() throws Exception {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .signPayload(true)
+            .streamResponsePayload(true)
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+        String secret = "my-secret-key";
+        String payload = "{\"event\":\"user.created\"}";
+
+        HttpPlainResponse response = mockResponse(Buffer.buffer(payload));
+        doReturn(response).when(plainContext).response();
+        HttpPlainRequest request = mock(HttpPlainRequest.class);
+        doReturn(mock(HttpHeaders.class)).when(request).headers();
+        doReturn(request).when(plainContext).request();
+
+        ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
+        policy.onResponse(plainContext).test().assertComplete();
+
+        verify(response, never()).onChunks(any());
+        verify(httpHeaders, never()).add(eq(HttpHeaderNames.TRAILER), anyString());
+        verify(httpHeaders).set(eq("X-HMAC-Signature"), signatureCaptor.capture());
+        assertThat(signatureCaptor.getValue()).isEqualTo(generateExpectedSignature("my-key-id", payload, secret, Algorithm.HMAC_SHA256));
+    }
+
+    @Test
+    @DisplayName("Should sign messages in parallel and keep their order")
+    void shouldSignMessagesInParallelInOrder() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .parallelMessageSigning(true)
+            .messageSigningConcurrency(4)
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            messages.add(DefaultMessage.builder().id(String.valueOf(i)).headers(HttpHeaders.create()).build().content("message-" + i));
+        }
+        HttpMessageResponse response = mock(HttpMessageResponse.class);
+        List<Message> signed = new ArrayList<>();
+        doAnswer(invocation -> {
+                FlowableTransformer<Message, Message> transformer = invocation.getArgument(0);
+                return Flowable.fromIterable(messages).compose(transformer).doOnNext(signed::add).ignoreElements();
+            })
+            .when(response)
+            .onMessages(any());
+        when(messageContext.response()).thenReturn(response);
+
+        policy.onMessageResponse(messageContext).test().awaitDone(10, TimeUnit.SECONDS).assertComplete();
+
+        assertThat(signed).containsExactlyElementsOf(messages);
+        for (int i = 0; i < messages.size(); i++) {
+            assertThat(messages.get(i).headers().get("X-HMAC-Signature")).isEqualTo(
+                generateExpectedSignature("my-key-id", "message-" + i, "my-secret-key", Algorithm.HMAC_SHA256)
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Should emit the messages signed in parallel on the event loop they were received on")
+    void shouldEmitMessagesSignedInParallelOnTheEventLoop() throws Exception {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("my-secret-key")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .parallelMessageSigning(true)
+            .messageSigningConcurrency(4)
+            .build();
+        GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
+
+        List<Message> messages = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            messages.add(DefaultMessage.builder().id(String.valueOf(i)).headers(HttpHeaders.create()).build().content("message-" + i));
+        }
+        HttpMessageResponse response = mock(HttpMessageResponse.class);
+        Set<String> emittingThreads = ConcurrentHashMap.newKeySet();
+        doAnswer(invocation -> {
+                FlowableTransformer<Message, Message> transformer = invocation.getArgument(0);
+                return Flowable.fromIterable(messages)
+                    .compose(transformer)
+                    .doOnNext(message -> emittingThreads.add(Thread.currentThread().getName()))
+                    .ignoreElements();
+            })
+            .when(response)
+            .onMessages(any());
+        when(messageContext.response()).thenReturn(response);
+
+        Vertx vertx = Vertx.vertx();
+        try {
+            CompletableFuture<Void> done = new CompletableFuture<>();
+            vertx.runOnContext(ignored ->
+                policy.onMessageResponse(messageContext).subscribe(() -> done.complete(null), done::completeExceptionally)
+            );
+            done.get(10, TimeUnit.SECONDS);
+        } finally {
+            vertx.close();
+            policy.release();
+        }
+
+        assertThat(emittingThreads).isNotEmpty().allSatisfy(thread -> assertThat(thread).startsWith("vert.x-eventloop-thread-"));
+        assertThat(messages).allSatisfy(message -> assertThat(message.headers().get("X-HMAC-Signature")).isNotNull());
+    }
+
     @Test
     @DisplayName("Should generate correct HMAC signature with timestamp and expiry")
     void shouldGenerateCorrectSignatureWithTimestampAndExpiry() {
@@ -125,13 +521,10 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String secret = "my-secret-key";
         String keyId = "my-key-id";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mockRequestWithTimestamp()).when(plainContext).request();
 
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
-
         ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
         TestObserver<Void> testObserver = policy.onResponse(plainContext).test();
 
@@ -170,13 +563,13 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         headersMap.put("X-Request-ID", requestId);
         headersMap.put("X-Timestamp", timestamp);
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
         when(httpHeaders.get("X-Request-ID")).thenReturn(requestId);
         when(httpHeaders.get("X-Timestamp")).thenReturn(timestamp);
+        when(httpHeaders.getAll("x-request-id")).thenReturn(List.of(requestId));
+        when(httpHeaders.getAll("x-timestamp")).thenReturn(List.of(timestamp));
         when(httpHeaders.toSingleValueMap()).thenReturn(headersMap);
         when(httpHeaders.names()).thenReturn(headersMap.keySet());
 
@@ -208,11 +601,9 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String payload = largePayload.toString();
         String secret = "my-secret-key";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
 
         ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
         TestObserver<Void> testObserver = policy.onResponse(plainContext).test();
@@ -232,11 +623,9 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String keyId = "my-key-id";
         String secret = "my-secret-key";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
 
         ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
 
@@ -311,11 +700,9 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String payload = "{\"test\":\"data\"}";
         String secret = "my-secret-key";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
 
         TestObserver<Void> testObserver = policy.onResponse(plainContext).test();
 
@@ -340,7 +727,7 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String payload = "{\"event\":\"webhook.test\",\"data\":\"example\"}";
         String actualSecretValue = "my-vault-secret-key";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
         when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
@@ -377,6 +764,56 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         assertThat(isValid).isTrue();
     }
 
+    @Test
+    @DisplayName("Should reach the secret manager once when the secret cache is enabled")
+    void shouldCacheSecretResolvedFromSecretManager() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("{#secrets.get('/dev/secret/gravitee/webhook-signing-key')}")
+            .targetSignatureHeader("X-HMAC-Signature")
+            .signPayload(true)
+            .secretCacheTtl(60)
+            .build();
+        GenerateHttpSignaturePolicy policy = spy(new GenerateHttpSignaturePolicy(configuration));
+        LocalSecretProvider secretProvider = new LocalSecretProvider().put("/dev/secret/gravitee/webhook-signing-key", "my-vault-secret");
+        // Stands for the template engine of the policy, sharing the secret manager of the gateway
+        doReturn(secretProvider).when(policy).secretTemplateEngine(plainContext);
+
+        String payload = "{\"event\":\"webhook.test\"}";
+        when(buffer.getNativeBuffer()).thenAnswer(invocation -> nativeBuffer(payload));
+        doReturn(mockResponse(buffer)).when(plainContext).response();
+        doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
+
+        for (int i = 0; i < 3; i++) {
+            policy.onResponse(plainContext).test().assertComplete();
+        }
+
+        String expectedSignature = generateExpectedSignature("my-key-id", payload, "my-vault-secret", Algorithm.HMAC_SHA256);
+        verify(httpHeaders, times(3)).set("X-HMAC-Signature", expectedSignature);
+        assertThat(secretProvider.lookups()).isEqualTo(1);
+        assertThat(policy.secretCache().hits()).isEqualTo(2);
+        // The secret may be refreshed once the requests are over, so it is never evaluated with their template engine
+        verify(plainContext, never()).getTemplateEngine();
+        // Only the request missing the secret resolves it
+        verify(policy).secretTemplateEngine(plainContext);
+    }
+
+    @Test
+    @DisplayName("Should not cache secrets depending on the execution context")
+    void shouldNotCacheContextDependentSecret() {
+        configuration = GenerateHttpSignaturePolicyConfiguration.builder()
+            .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+            .algorithm(Algorithm.HMAC_SHA256)
+            .keyId("my-key-id")
+            .secret("{#context.attributes['secret-key']}")
+            .secretCacheTtl(60)
+            .build();
+
+        assertThat(new GenerateHttpSignaturePolicy(configuration).secretCache()).isNull();
+    }
+
     @Test
     @DisplayName("Should handle EL template expressions in secret")
     void shouldHandleTemplateExpressionInSecret() {
@@ -392,7 +829,7 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String payload = "{\"data\":\"test\"}";
         String resolvedSecret = "resolved-secret-from-context";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
         when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
@@ -421,7 +858,6 @@ class GenerateHttpSignaturePolicyIntegrationTest {
             .build();
         GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
 
-        when(buffer.toString()).thenReturn("payload");
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
         doReturn(mockResponse(buffer)).when(plainContext).response();
         when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
@@ -452,11 +888,8 @@ class GenerateHttpSignaturePolicyIntegrationTest {
 
         GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
 
-        when(buffer.toString()).thenReturn("payload");
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
         doReturn(mockResponse(buffer)).when(plainContext).response();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval("my-secret-key", String.class)).thenReturn(Maybe.just("my-secret-key"));
         when(httpHeaders.get("X-Required-Header")).thenReturn(null);
         when(plainContext.interruptWith(any(ExecutionFailure.class))).thenReturn(Completable.complete());
 
@@ -477,11 +910,9 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String secret = "my-secret-key";
         String keyId = "my-key-id";
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
 
         ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
         TestObserver<Void> testObserver = policy.onResponse(plainContext).test();
@@ -509,11 +940,9 @@ class GenerateHttpSignaturePolicyIntegrationTest {
             .build();
         GenerateHttpSignaturePolicy policy = new GenerateHttpSignaturePolicy(configuration);
 
-        when(buffer.toString()).thenReturn(payload);
+        when(buffer.getNativeBuffer()).thenReturn(nativeBuffer(payload));
         doReturn(mockResponse(buffer)).when(plainContext).response();
         doReturn(mock(HttpPlainRequest.class)).when(plainContext).request();
-        when(plainContext.getTemplateEngine()).thenReturn(templateEngine);
-        when(templateEngine.eval(secret, String.class)).thenReturn(Maybe.just(secret));
 
         ArgumentCaptor<String> signatureCaptor = ArgumentCaptor.forClass(String.class);
         policy.onResponse(plainContext).test().assertComplete();
@@ -597,4 +1026,8 @@ class GenerateHttpSignaturePolicyIntegrationTest {
         String expectedSignature = generateExpectedSignature(configuration.keyId(), payload, secret, algorithm);
         return expectedSignature.equals(receivedSignature);
     }
+
+    private static ByteBuf nativeBuffer(String payload) {
+        return Unpooled.wrappedBuffer(payload.getBytes(StandardCharsets.UTF_8));
+    }
 }
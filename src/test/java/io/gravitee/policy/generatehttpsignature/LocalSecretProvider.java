@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import io.gravitee.el.TemplateContext;
+import io.gravitee.el.TemplateEngine;
+import io.reactivex.rxjava3.core.Maybe;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local stand-in for the secret manager, resolving <code>{#secrets.get('/path')}</code> expressions from an in-memory map
+ * and counting the lookups reaching it.
+ */
+class LocalSecretProvider implements TemplateEngine {
+
+    private static final Pattern SECRET_LOOKUP = Pattern.compile("\\{#secrets\\.get\\('([^']*)'\\)}");
+
+    private final Map<String, String> secrets = new ConcurrentHashMap<>();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private volatile boolean available = true;
+
+    LocalSecretProvider put(String path, String secret) {
+        secrets.put(path, secret);
+        return this;
+    }
+
+    void available(boolean available) {
+        this.available = available;
+    }
+
+    int lookups() {
+        return lookups.get();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Maybe<T> eval(String expression, Class<T> clazz) {
+        final Matcher matcher = SECRET_LOOKUP.matcher(expression);
+        if (!matcher.matches()) {
+            return Maybe.error(new IllegalArgumentException("Not a secret lookup: " + expression));
+        }
+        return Maybe.defer(() -> {
+            lookups.incrementAndGet();
+            if (!available) {
+                return Maybe.error(new IllegalStateException("Secret manager is not available"));
+            }
+            return Maybe.fromOptional(Optional.ofNullable((T) secrets.get(matcher.group(1))));
+        });
+    }
+
+    @Override
+    public <T> T getValue(String expression, Class<T> clazz) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public <T> T evalNow(String expression, Class<T> clazz) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public TemplateContext getTemplateContext() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class LogThrottleTest {
+
+    @Test
+    void shouldLetOneLogThroughPerInterval() {
+        AtomicLong clock = new AtomicLong();
+        LogThrottle throttle = new LogThrottle(Duration.ofSeconds(10), clock::get);
+
+        assertThat(throttle.acquire()).isZero();
+        assertThat(throttle.acquire()).isEqualTo(-1);
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(throttle.acquire()).isEqualTo(-1);
+        assertThat(throttle.acquire()).isEqualTo(-1);
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(throttle.acquire()).isEqualTo(3);
+        assertThat(throttle.acquire()).isEqualTo(-1);
+
+        clock.addAndGet(Duration.ofSeconds(30).toNanos());
+        assertThat(throttle.acquire()).isEqualTo(1);
+        assertThat(throttle.acquire()).isEqualTo(-1);
+    }
+}
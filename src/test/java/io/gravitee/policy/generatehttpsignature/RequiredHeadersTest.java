@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.gateway.api.http.HttpHeaders;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class RequiredHeadersTest {
+
+    private static final String ERROR_MESSAGE = "Unable to generate HTTP Signature:";
+
+    @Test
+    void shouldAcceptMessageWithAllRequiredHeaders() {
+        RequiredHeaders requiredHeaders = new RequiredHeaders(ERROR_MESSAGE, List.of("Host", "Accept"));
+
+        assertThat(requiredHeaders.check(HttpHeaders.create().set("Host", "localhost").set("Accept", "*/*"))).isNull();
+    }
+
+    @Test
+    void shouldListMissingHeadersInConfiguredOrder() {
+        RequiredHeaders requiredHeaders = new RequiredHeaders(ERROR_MESSAGE, List.of("Host", "Accept", "X-Custom"));
+
+        assertThat(requiredHeaders.check(HttpHeaders.create().set("Accept", "*/*")))
+            .isEqualTo("Unable to generate HTTP Signature: those headers are missing [Host, X-Custom]");
+        assertThat(requiredHeaders.check(HttpHeaders.create()))
+            .isEqualTo("Unable to generate HTTP Signature: those headers are missing [Host, Accept, X-Custom]");
+    }
+
+    @Test
+    void shouldReuseMessageOfSameMissingHeaders() {
+        RequiredHeaders requiredHeaders = new RequiredHeaders(ERROR_MESSAGE, List.of("Host", "Accept"));
+
+        String first = requiredHeaders.check(HttpHeaders.create().set("Host", "localhost"));
+        String second = requiredHeaders.check(HttpHeaders.create().set("Host", "other"));
+        String other = requiredHeaders.check(HttpHeaders.create().set("Accept", "*/*"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(other).isEqualTo("Unable to generate HTTP Signature: those headers are missing [Host]");
+    }
+
+    @Test
+    void shouldRequireDateHeaderWhenNoHeadersConfigured() {
+        RequiredHeaders requiredHeaders = new RequiredHeaders(ERROR_MESSAGE, List.of());
+
+        assertThat(requiredHeaders.check(HttpHeaders.create())).isEqualTo("Unable to generate HTTP Signature: 'Date' header is missing");
+        assertThat(requiredHeaders.check(HttpHeaders.create().set("Date", "Tue, 07 Jun 2026 20:51:35 GMT"))).isNull();
+    }
+
+    @Test
+    void shouldCheckMoreHeadersThanCached() {
+        List<String> names = IntStream.rangeClosed(1, RequiredHeaders.MAX_CACHED_HEADERS + 1).mapToObj(i -> "X-Header-" + i).toList();
+        RequiredHeaders requiredHeaders = new RequiredHeaders(ERROR_MESSAGE, names);
+        HttpHeaders headers = HttpHeaders.create();
+        names.forEach(name -> headers.set(name, "value"));
+
+        assertThat(requiredHeaders.check(headers)).isNull();
+
+        headers.remove("X-Header-2");
+        assertThat(requiredHeaders.check(headers)).isEqualTo("Unable to generate HTTP Signature: those headers are missing [X-Header-2]");
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.reactivex.rxjava3.core.Maybe;
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.reactivex.rxjava3.schedulers.TestScheduler;
+import io.reactivex.rxjava3.subjects.MaybeSubject;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SecretCacheTest {
+
+    private static final String EXPRESSION = "{#secrets.get('/vault/signing-key')}";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final TestScheduler refreshScheduler = new TestScheduler();
+    private LocalSecretProvider secretProvider;
+    private Supplier<Maybe<String>> loader;
+    private SecretCache cache;
+
+    @BeforeEach
+    void setUp() {
+        secretProvider = new LocalSecretProvider().put("/vault/signing-key", "first");
+        loader = () -> secretProvider.eval(EXPRESSION, String.class);
+        cache = new SecretCache(Duration.ofSeconds(10), Duration.ofSeconds(10), refreshScheduler, clock::get);
+    }
+
+    @Test
+    void shouldLoadOnceWithinTimeToLive() {
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        clock.set(Duration.ofSeconds(7).toNanos());
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+
+        assertThat(secretProvider.lookups()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefreshWithTheLoaderOfTheLookupStartingIt() {
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        LocalSecretProvider otherProvider = new LocalSecretProvider().put("/vault/signing-key", "second");
+
+        clock.set(Duration.ofSeconds(9).toNanos());
+        cache.get(EXPRESSION, () -> otherProvider.eval(EXPRESSION, String.class)).test().assertValue("first");
+        refreshScheduler.triggerActions();
+
+        cache.get(EXPRESSION, loader).test().assertValue("second");
+        assertThat(secretProvider.lookups()).isEqualTo(1);
+        assertThat(otherProvider.lookups()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRefreshAheadInBackground() {
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        secretProvider.put("/vault/signing-key", "second");
+
+        clock.set(Duration.ofSeconds(9).toNanos());
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        assertThat(secretProvider.lookups()).isEqualTo(1);
+
+        refreshScheduler.triggerActions();
+
+        cache.get(EXPRESSION, loader).test().assertValue("second");
+        assertThat(secretProvider.lookups()).isEqualTo(2);
+        assertThat(cache.refreshes()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldServeStaleSecretWhileRefreshFails() {
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        secretProvider.available(false);
+
+        clock.set(Duration.ofSeconds(15).toNanos());
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        refreshScheduler.triggerActions();
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        refreshScheduler.triggerActions();
+        assertThat(cache.refreshes()).isEqualTo(2);
+
+        secretProvider.available(true);
+        secretProvider.put("/vault/signing-key", "second");
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        refreshScheduler.triggerActions();
+        cache.get(EXPRESSION, loader).test().assertValue("second");
+    }
+
+    @Test
+    void shouldLoadAgainOnceTheMaximumStalenessIsOver() {
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        secretProvider.available(false);
+
+        clock.set(Duration.ofSeconds(15).toNanos());
+        cache.get(EXPRESSION, loader).test().assertValue("first");
+        refreshScheduler.triggerActions();
+
+        clock.set(Duration.ofSeconds(20).toNanos());
+        assertThat(cache.getIfPresent(EXPRESSION, loader)).isNull();
+        cache.get(EXPRESSION, loader).test().assertError(IllegalStateException.class);
+
+        secretProvider.available(true);
+        secretProvider.put("/vault/signing-key", "second");
+        cache.get(EXPRESSION, loader).test().assertValue("second");
+        assertThat(cache.misses()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldShareTheLoadOfConcurrentMisses() {
+        final MaybeSubject<String> pending = MaybeSubject.create();
+        final AtomicInteger loads = new AtomicInteger();
+        final Supplier<Maybe<String>> slowLoader = () -> {
+            loads.incrementAndGet();
+            return pending;
+        };
+
+        final TestObserver<String> first = cache.get(EXPRESSION, slowLoader).test();
+        final TestObserver<String> second = cache.get(EXPRESSION, slowLoader).test();
+        pending.onSuccess("first");
+
+        first.assertValue("first");
+        second.assertValue("first");
+        assertThat(loads).hasValue(1);
+
+        cache.get(EXPRESSION, slowLoader).test().assertValue("first");
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void shouldNotCacheMissingSecret() {
+        secretProvider = new LocalSecretProvider();
+
+        cache.get(EXPRESSION, loader).test().assertComplete().assertNoValues();
+        cache.get(EXPRESSION, loader).test().assertComplete().assertNoValues();
+
+        assertThat(secretProvider.lookups()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldRejectNonPositiveTimeToLive() {
+        assertThatThrownBy(() -> new SecretCache(Duration.ZERO)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SecretCache(Duration.ofSeconds(10), Duration.ofSeconds(-1))).isInstanceOf(
+            IllegalArgumentException.class
+        );
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import org.tomitribe.auth.signatures.Algorithm;
+import org.tomitribe.auth.signatures.EnginePoolOptions;
+import org.tomitribe.auth.signatures.Signature;
+import org.tomitribe.auth.signatures.Signer;
+
+class SignerCacheTest {
+
+    private final AtomicInteger builtSigners = new AtomicInteger();
+
+    @Test
+    void shouldBuildSignerOnlyOnceForSameInputs() {
+        SignerCache cache = new SignerCache();
+
+        Signer first = lookup(cache, "key-id", "secret", Algorithm.HMAC_SHA256);
+        Signer second = lookup(cache, "key-id", "secret", Algorithm.HMAC_SHA256);
+
+        assertThat(second).isSameAs(first);
+        assertThat(builtSigners).hasValue(1);
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldBuildDistinctSignersWhenSecretKeyIdOrAlgorithmChange() {
+        SignerCache cache = new SignerCache();
+
+        Signer reference = lookup(cache, "key-id", "secret", Algorithm.HMAC_SHA256);
+        Signer otherSecret = lookup(cache, "key-id", "other", Algorithm.HMAC_SHA256);
+        Signer otherKeyId = lookup(cache, "other-id", "secret", Algorithm.HMAC_SHA256);
+        Signer otherAlgorithm = lookup(cache, "key-id", "secret", Algorithm.HMAC_SHA512);
+
+        assertThat(List.of(otherSecret, otherKeyId, otherAlgorithm)).doesNotContain(reference).doesNotHaveDuplicates();
+        assertThat(builtSigners).hasValue(4);
+        assertThat(cache.misses()).isEqualTo(4);
+        assertThat(cache.hits()).isZero();
+    }
+
+    @Test
+    void shouldEvictOldestSignerWhenFull() {
+        SignerCache cache = new SignerCache(2);
+
+        Signer first = lookup(cache, "key-1", "secret", Algorithm.HMAC_SHA256);
+        lookup(cache, "key-2", "secret", Algorithm.HMAC_SHA256);
+        lookup(cache, "key-3", "secret", Algorithm.HMAC_SHA256);
+
+        assertThat(cache.size()).isEqualTo(2);
+
+        Signer rebuilt = lookup(cache, "key-1", "secret", Algorithm.HMAC_SHA256);
+        assertThat(rebuilt).isNotSameAs(first);
+        assertThat(builtSigners).hasValue(4);
+    }
+
+    @Test
+    void shouldEvictOldestSignerAfterAFailedBuild() {
+        SignerCache cache = new SignerCache(2);
+
+        assertThatThrownBy(() ->
+                cache.get(
+                    "key-2",
+                    "secret",
+                    Algorithm.HMAC_SHA256,
+                    () -> {
+                        throw new IllegalStateException("Invalid key");
+                    }
+                )
+            )
+            .isInstanceOf(IllegalStateException.class);
+        lookup(cache, "key-1", "secret", Algorithm.HMAC_SHA256);
+        Signer second = lookup(cache, "key-2", "secret", Algorithm.HMAC_SHA256);
+        lookup(cache, "key-3", "secret", Algorithm.HMAC_SHA256);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(lookup(cache, "key-2", "secret", Algorithm.HMAC_SHA256)).isSameAs(second);
+    }
+
+    @Test
+    void shouldMatchSignerCachedForPrecomputedSecretDigest() {
+        SignerCache cache = new SignerCache();
+
+        Signer first = cache.get(
+            "key-id",
+            SignerCache.digest("secret"),
+            Algorithm.HMAC_SHA256,
+            () -> signer("key-id", "secret", Algorithm.HMAC_SHA256)
+        );
+
+        assertThat(lookup(cache, "key-id", "secret", Algorithm.HMAC_SHA256)).isSameAs(first);
+        assertThat(builtSigners).hasValue(1);
+    }
+
+    @Test
+    void shouldListEnginePoolsOfAsymmetricSignersOnly() throws Exception {
+        SignerCache cache = new SignerCache();
+        lookup(cache, "hmac", "secret", Algorithm.HMAC_SHA256);
+        Signature signature = new Signature("rsa", null, Algorithm.RSA_SHA256, null, null, List.of("date"));
+        PrivateKey privateKey = KeyPairGenerator.getInstance("RSA").generateKeyPair().getPrivate();
+        cache.get(
+            "rsa",
+            "private-key",
+            Algorithm.RSA_SHA256,
+            () ->
+                new Signer(privateKey, signature, null, EnginePoolOptions.of(3, EnginePoolOptions.OnExhausted.FAIL))
+        );
+
+        assertThat(cache.enginePools()).singleElement().satisfies(pool -> assertThat(pool.getMaxSize()).isEqualTo(3));
+    }
+
+    @Test
+    void shouldRejectInvalidSize() {
+        assertThatThrownBy(() -> new SignerCache(0))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Signer cache size must be a positive number");
+    }
+
+    private Signer lookup(SignerCache cache, String keyId, String secret, Algorithm algorithm) {
+        return cache.get(keyId, secret, algorithm, () -> signer(keyId, secret, algorithm));
+    }
+
+    private Signer signer(String keyId, String secret, Algorithm algorithm) {
+        builtSigners.incrementAndGet();
+        Signature signature = new Signature(keyId, null, algorithm, null, null, List.of("date"));
+        return new Signer(new SecretKeySpec(secret.getBytes(), algorithm.getJvmName()), signature);
+    }
+}
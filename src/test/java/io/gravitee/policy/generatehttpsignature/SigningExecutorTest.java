@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.reactivex.rxjava3.observers.TestObserver;
+import io.vertx.core.Vertx;
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.Test;
+
+class SigningExecutorTest {
+
+    @Test
+    void shouldRunTaskOnWorkerThread() {
+        final SigningExecutor executor = new SigningExecutor(1, 1);
+        final AtomicReference<String> thread = new AtomicReference<>();
+
+        executor
+            .submit(() -> Thread.currentThread().getName())
+            .doOnSuccess(thread::set)
+            .test()
+            .awaitDone(5, TimeUnit.SECONDS)
+            .assertComplete();
+
+        assertThat(thread.get()).startsWith("gio-http-signature-").isNotEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    void shouldPropagateTaskFailure() {
+        final SigningExecutor executor = new SigningExecutor(1, 1);
+
+        executor
+            .submit(() -> {
+                throw new IOException("Unable to read payload");
+            })
+            .test()
+            .awaitDone(5, TimeUnit.SECONDS)
+            .assertError(IOException.class);
+    }
+
+    @Test
+    void shouldRejectWhenWorkersAndQueueAreFull() throws InterruptedException {
+        final SigningExecutor executor = new SigningExecutor(1, 1);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final TestObserver<Boolean> running = executor
+            .submit(() -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            })
+            .test();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        final TestObserver<Boolean> queued = executor.submit(() -> true).test();
+
+        executor.submit(() -> true).test().assertError(SigningExecutor.RejectedSigningException.class);
+
+        release.countDown();
+        running.awaitDone(5, TimeUnit.SECONDS).assertComplete();
+        queued.awaitDone(5, TimeUnit.SECONDS).assertComplete();
+    }
+
+    @Test
+    void shouldSignalOnTheVertxContextOfTheCaller() throws Exception {
+        final SigningExecutor executor = new SigningExecutor(1, 1);
+        final Vertx vertx = Vertx.vertx();
+        try {
+            final AtomicReference<String> signingThread = new AtomicReference<>();
+            final CompletableFuture<String> signalThread = new CompletableFuture<>();
+
+            vertx.runOnContext(ignored ->
+                executor
+                    .submit(() -> {
+                        signingThread.set(Thread.currentThread().getName());
+                        return "signature";
+                    })
+                    .subscribe(signature -> signalThread.complete(Thread.currentThread().getName()), signalThread::completeExceptionally)
+            );
+
+            assertThat(signalThread.get(5, TimeUnit.SECONDS)).startsWith("vert.x-eventloop-thread-");
+            assertThat(signingThread.get()).startsWith("gio-http-signature-");
+        } finally {
+            vertx.close();
+            executor.release();
+        }
+    }
+
+    @Test
+    void shouldShareExecutorWithSameBounds() {
+        final SigningExecutor shared = SigningExecutor.shared(2, 16);
+        final SigningExecutor other = SigningExecutor.shared(2, 32);
+
+        assertThat(SigningExecutor.shared(2, 16)).isSameAs(shared).isNotSameAs(other);
+
+        shared.release();
+        shared.release();
+        other.release();
+    }
+
+    @Test
+    void shouldShutDownOnceReleasedByAllItsUsers() {
+        final SigningExecutor first = SigningExecutor.shared(3, 8);
+        final SigningExecutor second = SigningExecutor.shared(3, 8);
+
+        first.release();
+        assertThat(second.isShutdown()).isFalse();
+
+        second.release();
+        assertThat(second.isShutdown()).isTrue();
+        second.submit(() -> true).test().assertError(SigningExecutor.RejectedSigningException.class);
+
+        final SigningExecutor next = SigningExecutor.shared(3, 8);
+        assertThat(next).isNotSameAs(second);
+        next.release();
+    }
+
+    @Test
+    void shouldRequirePositiveBounds() {
+        assertThatThrownBy(() -> new SigningExecutor(0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new SigningExecutor(1, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
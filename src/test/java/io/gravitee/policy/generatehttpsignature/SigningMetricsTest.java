@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.security.KeyPairGenerator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.tomitribe.auth.signatures.Algorithm;
+import org.tomitribe.auth.signatures.EnginePoolOptions;
+import org.tomitribe.auth.signatures.Signature;
+import org.tomitribe.auth.signatures.Signer;
+
+class SigningMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SigningMetrics metrics = new SigningMetrics(registry, "HMAC_SHA256");
+
+    @Test
+    void shouldRecordSignaturesPerApiAndAlgorithm() {
+        metrics.forApi("api-1").signed(5_000, 3_000, 1_000, 128);
+        metrics.forApi("api-1").signed(5_000, 3_000, 1_000, 64);
+        metrics.forApi("api-2").signed(5_000, 3_000, 1_000, 32);
+
+        assertThat(registry.get(SigningMetrics.SIGNATURES).tag("api", "api-1").tag("algorithm", "HMAC_SHA256").counter().count())
+            .isEqualTo(2);
+        assertThat(registry.get(SigningMetrics.BYTES).tag("api", "api-1").counter().count()).isEqualTo(192);
+        assertThat(registry.get(SigningMetrics.BYTES).tag("api", "api-2").counter().count()).isEqualTo(32);
+
+        final Timer signing = registry.get(SigningMetrics.DURATION).tag("api", "api-1").tag("phase", "signing").timer();
+        assertThat(signing.count()).isEqualTo(2);
+        assertThat(signing.totalTime(TimeUnit.NANOSECONDS)).isEqualTo(6_000);
+        assertThat(registry.get(SigningMetrics.DURATION).tag("api", "api-1").tag("phase", "total").timer().count()).isEqualTo(2);
+        assertThat(registry.get(SigningMetrics.DURATION).tag("api", "api-1").tag("phase", "header").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldOnlyPublishPercentileHistogramsWhenEnabled() {
+        final Map<String, Boolean> histograms = new HashMap<>();
+        registry
+            .config()
+            .meterFilter(
+                new MeterFilter() {
+                    @Override
+                    public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                        if (id.getName().equals(SigningMetrics.DURATION) && "total".equals(id.getTag("phase"))) {
+                            histograms.put(id.getTag("api"), Boolean.TRUE.equals(config.isPercentileHistogram()));
+                        }
+                        return config;
+                    }
+                }
+            );
+        final SigningMetrics withHistograms = new SigningMetrics(registry, "HMAC_SHA256", null, true);
+
+        metrics.forApi("api-1");
+        withHistograms.forApi("api-2");
+
+        assertThat(histograms).containsExactlyInAnyOrderEntriesOf(Map.of("api-1", false, "api-2", true));
+        withHistograms.close();
+    }
+
+    @Test
+    void shouldRecordResolutionAndFailuresByKey() {
+        final SigningMetrics.Meters meters = metrics.forApi("api-1");
+        meters.resolved(2_000_000);
+        meters.failed("HTTP_SIGNATURE_IMPOSSIBLE_GENERATION");
+        meters.failed("HTTP_SIGNATURE_IMPOSSIBLE_GENERATION");
+        meters.failed("HTTP_SIGNATURE_GENERATION_REJECTED");
+
+        assertThat(registry.get(SigningMetrics.DURATION).tag("phase", "resolution").timer().totalTime(TimeUnit.MILLISECONDS)).isEqualTo(2);
+        assertThat(registry.get(SigningMetrics.FAILURES).tag("key", "HTTP_SIGNATURE_IMPOSSIBLE_GENERATION").counter().count()).isEqualTo(2);
+        assertThat(registry.get(SigningMetrics.FAILURES).tag("key", "HTTP_SIGNATURE_GENERATION_REJECTED").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldShareMetersOfAnApiAndTagUnknownApis() {
+        assertThat(metrics.forApi("api-1")).isSameAs(metrics.forApi("api-1"));
+
+        metrics.forApi(null).signed(1, 1, 1, 1);
+
+        assertThat(registry.get(SigningMetrics.SIGNATURES).tag("api", SigningMetrics.UNKNOWN_API).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldRemoveMetersOfAnApiOnceNoInstanceRecordsIntoThem() {
+        final SigningMetrics other = new SigningMetrics(registry, "HMAC_SHA256");
+        metrics.forApi("api-1").failed("HTTP_SIGNATURE_IMPOSSIBLE_GENERATION");
+        other.forApi("api-1").signed(1, 1, 1, 1);
+        other.forApi("api-2").signed(1, 1, 1, 1);
+
+        metrics.close();
+
+        assertThat(registry.get(SigningMetrics.SIGNATURES).tag("api", "api-1").counter().count()).isEqualTo(1);
+
+        other.close();
+
+        assertThat(registry.find(SigningMetrics.SIGNATURES).meters()).isEmpty();
+        assertThat(registry.find(SigningMetrics.FAILURES).meters()).isEmpty();
+        assertThat(registry.find(SigningMetrics.DURATION).meters()).isEmpty();
+    }
+
+    @Test
+    void shouldPublishEngineOccupancyOfAllInstancesRecordingIntoAnApi() throws Exception {
+        final Signer signer = new Signer(
+            KeyPairGenerator.getInstance("RSA").generateKeyPair().getPrivate(),
+            new Signature("key-id", null, Algorithm.RSA_SHA256, null, null, List.of("date")),
+            null,
+            EnginePoolOptions.of(3, EnginePoolOptions.OnExhausted.FAIL)
+        );
+        final SigningMetrics request = new SigningMetrics(registry, "RSA_SHA256", () -> List.of(signer.getEnginePool()));
+        final SigningMetrics response = new SigningMetrics(registry, "RSA_SHA256", () -> List.of(signer.getEnginePool()));
+        request.forApi("api-1");
+        response.forApi("api-1");
+
+        assertThat(registry.get(SigningMetrics.ENGINES).tag("api", "api-1").tag("state", "max").gauge().value()).isEqualTo(6);
+        assertThat(registry.get(SigningMetrics.ENGINES).tag("state", "in-use").gauge().value()).isZero();
+        assertThat(registry.get(SigningMetrics.ENGINES_REJECTED).tag("api", "api-1").functionCounter().count()).isZero();
+
+        request.close();
+
+        assertThat(registry.get(SigningMetrics.ENGINES).tag("state", "max").gauge().value()).isEqualTo(3);
+
+        response.close();
+
+        assertThat(registry.find(SigningMetrics.ENGINES).meters()).isEmpty();
+        assertThat(registry.find(SigningMetrics.ENGINES_REJECTED).meters()).isEmpty();
+    }
+
+    @Test
+    void shouldNotPublishEngineOccupancyForSymmetricAlgorithms() {
+        metrics.forApi("api-1");
+
+        assertThat(registry.find(SigningMetrics.ENGINES).meters()).isEmpty();
+    }
+
+    @Test
+    void shouldNotPublishWithoutRegistry() {
+        final SigningMetrics withoutRegistry = new SigningMetrics(null, "HMAC_SHA256");
+
+        withoutRegistry.forApi("api-1").signed(1, 1, 1, 1);
+
+        assertThat(registry.getMeters()).isEmpty();
+        withoutRegistry.close();
+    }
+}
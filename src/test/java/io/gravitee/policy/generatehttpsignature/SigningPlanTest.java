@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.gravitee.policy.generatehttpsignature;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.gravitee.policy.generatehttpsignature.configuration.Algorithm;
+import io.gravitee.policy.generatehttpsignature.configuration.GenerateHttpSignaturePolicyConfiguration;
+import io.gravitee.policy.generatehttpsignature.configuration.HttpSignatureScheme;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.tomitribe.auth.signatures.SigningComponent;
+
+class SigningPlanTest {
+
+    @Test
+    void shouldCompileSignedComponents() {
+        SigningPlan plan = SigningPlan.compile(
+            GenerateHttpSignaturePolicyConfiguration
+                .builder()
+                .algorithm(Algorithm.HMAC_SHA256)
+                .scheme(HttpSignatureScheme.SIGNATURE)
+                .headers(List.of("(request-target)", "Host", "X-Custom"))
+                .created(true)
+                .expires(true)
+                .build()
+        );
+
+        assertThat(plan.requiredHeaders()).containsExactly("(request-target)", "Host", "X-Custom");
+        assertThat(plan.signedHeaders()).containsExactly("(request-target)", "host", "x-custom", "(created)", "(expires)");
+        assertThat(plan.components())
+            .extracting(SigningComponent::getType)
+            .containsExactly(
+                SigningComponent.Type.REQUEST_TARGET,
+                SigningComponent.Type.HEADER,
+                SigningComponent.Type.HEADER,
+                SigningComponent.Type.CREATED,
+                SigningComponent.Type.EXPIRES
+            );
+        assertThat(plan.signsRequestTarget()).isTrue();
+        assertThat(plan.algorithm()).isEqualTo(org.tomitribe.auth.signatures.Algorithm.HMAC_SHA256);
+        assertThat(plan.targetHeader()).isEqualTo("Signature");
+        assertThat(plan.stripSchemePrefix()).isTrue();
+    }
+
+    @Test
+    void shouldResolveTargetHeaderFromScheme() {
+        SigningPlan authorization = SigningPlan.compile(
+            GenerateHttpSignaturePolicyConfiguration.builder().scheme(HttpSignatureScheme.AUTHORIZATION).build()
+        );
+        SigningPlan custom = SigningPlan.compile(
+            GenerateHttpSignaturePolicyConfiguration
+                .builder()
+                .scheme(HttpSignatureScheme.CUSTOM_HEADER)
+                .targetSignatureHeader("X-Signature")
+                .build()
+        );
+
+        assertThat(authorization.targetHeader()).isEqualTo("Authorization");
+        assertThat(authorization.stripSchemePrefix()).isFalse();
+        assertThat(authorization.signedHeaders()).isEmpty();
+        assertThat(authorization.signsRequestTarget()).isFalse();
+        assertThat(custom.targetHeader()).isEqualTo("X-Signature");
+        assertThat(custom.stripSchemePrefix()).isTrue();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tomitribe.auth.signatures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class Base64Test {
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2, 3, 4, 5, 32, 57, 58, 64, 114, 256, 1000 })
+    void shouldEncodeLikeTheJdk(int length) {
+        final byte[] data = randomBytes(length);
+        final String expected = java.util.Base64.getEncoder().encodeToString(data);
+
+        assertThat(new String(Base64.encodeBase64(data), StandardCharsets.US_ASCII)).isEqualTo(expected);
+        assertThat(Base64.encodeToString(data)).isEqualTo(expected);
+        assertThat(Base64.encode(data, new StringBuilder("prefix:"))).hasToString("prefix:" + expected);
+        assertThat(Base64.encodedLength(length)).isEqualTo(expected.length());
+
+        final char[] chars = new char[expected.length() + 2];
+        assertThat(Base64.encode(data, 0, length, chars, 2)).isEqualTo(expected.length());
+        assertThat(new String(chars, 2, expected.length())).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2, 3, 57, 58, 1000 })
+    void shouldChunkLikeTheJdkMimeEncoder(int length) {
+        final byte[] data = randomBytes(length);
+        // RFC 2045 chunks, the last one being followed by a separator too
+        final String expected = java.util.Base64.getMimeEncoder().encodeToString(data) + (length > 0 ? "\r\n" : "");
+
+        assertThat(new String(Base64.encodeBase64(data, true), StandardCharsets.US_ASCII)).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 0, 1, 2, 3, 57, 58, 1000 })
+    void shouldDecodeWhateverTheLineBreaks(int length) {
+        final byte[] data = randomBytes(length);
+        final String encoded = java.util.Base64.getMimeEncoder().encodeToString(data);
+        final byte[] chunked = encoded.getBytes(StandardCharsets.US_ASCII);
+
+        assertThat(Base64.decodeBase64(chunked)).isEqualTo(data);
+        assertThat(Base64.decodeBase64(encoded)).isEqualTo(data);
+        assertThat(Base64.decode(ByteBuffer.wrap(chunked), 0, chunked.length)).isEqualTo(data);
+
+        final byte[] decoded = new byte[Base64.decodedLength(chunked, 0, chunked.length) + 1];
+        assertThat(Base64.decode(chunked, 0, chunked.length, decoded, 1)).isEqualTo(length);
+        assertThat(decoded).endsWith(data);
+    }
+
+    @Test
+    void shouldDiscardNonBase64Characters() {
+        final byte[] data = "aGVs\r\nbG8-=\u00e9".getBytes(StandardCharsets.ISO_8859_1);
+
+        assertThat(new String(Base64.discardNonBase64(data), StandardCharsets.US_ASCII)).isEqualTo("aGVsbG8=");
+        assertThat(Base64.decodeBase64("aGVs\r\nbG8\u20ac=")).isEqualTo("hello".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] randomBytes(int length) {
+        final byte[] data = new byte[length];
+        new Random(length).nextBytes(data);
+        return data;
+    }
+}
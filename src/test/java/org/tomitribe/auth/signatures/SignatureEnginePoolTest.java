@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tomitribe.auth.signatures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+class SignatureEnginePoolTest {
+
+    private static KeyPair keyPair;
+
+    @BeforeAll
+    static void generateKeyPair() throws Exception {
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        keyPair = generator.generateKeyPair();
+    }
+
+    @Test
+    void shouldReuseEnginesBetweenSignatures() throws Exception {
+        final Signer signer = signer(EnginePoolOptions.defaults());
+        final Map<String, String> headers = Map.of("date", "Tue, 07 Jun 2026 20:51:35 GMT");
+
+        final Signature first = signer.sign("get", "/", headers);
+        final Signature second = signer.sign("get", "/", headers);
+
+        assertThat(second.getSignature()).isEqualTo(first.getSignature());
+        assertThat(signer.getEnginePool().getIdle()).isEqualTo(1);
+        assertThat(signer.getEnginePool().getInUse()).isZero();
+    }
+
+    @Test
+    void shouldProduceVerifiableSignatures() throws Exception {
+        final Signer signer = signer(EnginePoolOptions.defaults());
+        final Map<String, String> headers = Map.of("date", "Tue, 07 Jun 2026 20:51:35 GMT");
+
+        final Signature signed = signer.sign("get", "/", headers);
+
+        assertThat(new Verifier(keyPair.getPublic(), signed).verify("get", "/", headers)).isTrue();
+    }
+
+    @Test
+    void shouldRejectWhenExhaustedAndConfiguredToFail() {
+        final SignatureEnginePool pool = signer(EnginePoolOptions.of(1, EnginePoolOptions.OnExhausted.FAIL)).getEnginePool();
+
+        final java.security.Signature borrowed = pool.borrow();
+
+        assertThatThrownBy(pool::borrow).isInstanceOf(EnginePoolExhaustedException.class);
+        assertThat(pool.getRejected()).isEqualTo(1);
+
+        pool.release(borrowed);
+        assertThat(pool.borrow()).isSameAs(borrowed);
+    }
+
+    @Test
+    void shouldNotHoldPooledEnginesWhileSessionsAreOpen() throws Exception {
+        final Signer signer = signer(EnginePoolOptions.of(1, EnginePoolOptions.OnExhausted.FAIL));
+        final Map<String, String> headers = Map.of("date", "Tue, 07 Jun 2026 20:51:35 GMT");
+
+        final Signer.Session first = signer.newSession();
+        final Signer.Session second = signer.newSession();
+        first.payload().write("streamed payload");
+
+        assertThat(signer.getEnginePool().getInUse()).isZero();
+        // requests keep being signed with the pooled engine while the streams flow
+        final Signature signed = signer.signWithPayload("get", "/", headers, null, null, "streamed payload");
+        assertThat(first.sign("get", "/", name -> List.of(headers.get(name))).getSignature()).isEqualTo(signed.getSignature());
+        second.abort();
+    }
+
+    @Test
+    void shouldAllocateExtraEngineWhenExhaustedAndKeepOnlyMaxSize() {
+        final SignatureEnginePool pool = signer(EnginePoolOptions.of(1, EnginePoolOptions.OnExhausted.ALLOCATE)).getEnginePool();
+
+        final java.security.Signature first = pool.borrow();
+        final java.security.Signature extra = pool.borrow();
+        assertThat(extra).isNotSameAs(first);
+        assertThat(pool.getInUse()).isEqualTo(2);
+
+        pool.release(first);
+        pool.release(extra);
+        assertThat(pool.getIdle()).isEqualTo(1);
+        assertThat(pool.getInUse()).isZero();
+    }
+
+    @Test
+    void shouldNotPoolEnginesForHmac() {
+        final Signature signature = new Signature("key-id", null, Algorithm.HMAC_SHA256, null, null, List.of("date"));
+        final Signer signer = new Signer(new javax.crypto.spec.SecretKeySpec("secret".getBytes(), "HmacSHA256"), signature);
+
+        assertThat(signer.getEnginePool()).isNull();
+    }
+
+    private static Signer signer(EnginePoolOptions options) {
+        final Signature signature = new Signature("key-id", null, Algorithm.RSA_SHA256, null, null, List.of("date"));
+        return new Signer(keyPair.getPrivate(), signature, null, options);
+    }
+}
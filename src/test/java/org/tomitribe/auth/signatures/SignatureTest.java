@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tomitribe.auth.signatures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SignatureTest {
+
+    private static final List<String> HEADERS = List.of("(request-target)", "(created)", "(expires)", "Date");
+    private static final byte[] SIGNATURE = "signature".getBytes(StandardCharsets.US_ASCII);
+
+    @Test
+    void shouldRenderHeaderParameters() {
+        final Signature template = new Signature("key", null, Algorithm.HMAC_SHA256, null, null, HEADERS);
+        final Signature signature = new Signature(template, SIGNATURE, 1_700_000_000_123L, 1_700_000_030_500L);
+
+        assertThat(signature.toString()).isEqualTo(
+            "Signature keyId=\"key\",created=1700000000,expires=1700000030.500,algorithm=\"hmac-sha256\"," +
+            "headers=\"(request-target) (created) (expires) date\",signature=\"c2lnbmF0dXJl\""
+        );
+        assertThat(signature.toParamString()).isEqualTo(signature.toString().substring("Signature ".length()));
+    }
+
+    @Test
+    void shouldOmitTimesWhichAreNotSigned() {
+        final Signature template = new Signature("key", SigningAlgorithm.HS2019, Algorithm.HMAC_SHA256, null, null, List.of("date"));
+        final Signature signature = new Signature(template, SIGNATURE, 1_700_000_000_123L, 1_700_000_030_500L);
+
+        assertThat(signature.toParamString()).isEqualTo(
+            "keyId=\"key\",algorithm=\"hs2019\",headers=\"date\",signature=\"c2lnbmF0dXJl\""
+        );
+    }
+
+    @Test
+    void shouldRenderExpiresIndependentlyOfDefaultLocale() {
+        final Locale locale = Locale.getDefault();
+        try {
+            Locale.setDefault(Locale.GERMANY);
+            final Signature template = new Signature("key", null, Algorithm.HMAC_SHA256, null, null, HEADERS);
+
+            assertThat(new Signature(template, SIGNATURE, 1_000L, 31_005L).toParamString()).contains(",expires=31.005,");
+        } finally {
+            Locale.setDefault(locale);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = { 0L, 1L, 9L, 10L, 99L, 100L, 999L, 1_000L, 1_700_000_030_500L, -1L, -999L, -1_000L, -1_500L })
+    void shouldAppendSecondsLikeFormat(long milliseconds) {
+        assertThat(Signatures.appendSeconds(new StringBuilder(), milliseconds).toString()).isEqualTo(
+            String.format(Locale.ROOT, "%.3f", milliseconds / 1000.0)
+        );
+    }
+}
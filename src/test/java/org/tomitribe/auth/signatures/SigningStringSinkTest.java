@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2015 The Gravitee team (http://gravitee.io)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.tomitribe.auth.signatures;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class SigningStringSinkTest {
+
+    private static final SecretKeySpec KEY = new SecretKeySpec("secret".getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    private static final List<String> REQUIRED = List.of("(request-target)", "(created)", "(expires)", "date", "x-custom");
+    private static final Map<String, String> HEADERS = Map.of("Date", "Tue, 07 Jun 2026 20:51:35 GMT", "X-Custom", "café ☕ 😀");
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "plain ascii payload", "payload with accents éàù, emoji 😀 and lone surrogate \uD800" })
+    void shouldFeedMacWithSameBytesAsSigningString(String payload) throws Exception {
+        final String largePayload = payload.repeat(500);
+        final String signingString = Signatures.createSigningStringWithPayload(
+            REQUIRED,
+            "GET",
+            "/foo?bar=baz",
+            HEADERS,
+            1_700_000_000_000L,
+            1_700_000_030_500L,
+            largePayload
+        );
+
+        final Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(KEY);
+        Signatures.writeSigningStringWithPayload(
+            SigningStringSink.of(mac),
+            REQUIRED,
+            "GET",
+            "/foo?bar=baz",
+            HEADERS,
+            1_700_000_000_000L,
+            1_700_000_030_500L,
+            largePayload
+        );
+        final byte[] streamed = mac.doFinal();
+
+        assertThat(streamed).isEqualTo(mac.doFinal(signingString.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "x-custom: ascii\n", "x-custom: café ☕ 😀\n", "lone surrogates \uD800 \uDC00 and \uD800" })
+    void shouldCountUtf8BytesWritten(String chars) {
+        assertThat(SigningStringSink.utf8Length(chars)).isEqualTo(chars.getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    void shouldSignPayloadWrittenThroughSession() throws Exception {
+        final Signer signer = new Signer(KEY, new Signature("key", null, Algorithm.HMAC_SHA256, null, null, List.of("date")));
+
+        final Signer.Session session = signer.newSession();
+        session.payload().write("chunked ");
+        session.payload().write("payload ".getBytes(StandardCharsets.UTF_8), 0, 8);
+        session.payload().write("é");
+        final Signature signature = session.sign("GET", "/", name -> List.of("today"));
+
+        assertThat(signature.getSignature()).isEqualTo(
+            signer.signWithPayload("GET", "/", Map.of("Date", "today"), "chunked payload é").getSignature()
+        );
+        assertThatThrownBy(() -> session.sign("GET", "/", name -> List.of("today"))).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void shouldBuildSigningString() {
+        final String signingString = Signatures.createSigningStringWithPayload(
+            List.of("(request-target)", "date"),
+            "GET",
+            "/foo",
+            Map.of("Date", "today"),
+            null,
+            null,
+            null
+        );
+
+        assertThat(signingString).isEqualTo("null\n(request-target): get /foo\ndate: today");
+    }
+
+    @Test
+    void shouldJoinMultipleHeaderValuesAndOnlyReadSignedHeaders() {
+        final List<String> lookedUp = new ArrayList<>();
+        final Map<String, List<String>> headers = Map.of(
+            "cache-control",
+            List.of("max-age=60", "must-revalidate"),
+            "date",
+            List.of("today")
+        );
+        final SigningStringSink.StringSink sink = SigningStringSink.toStringSink();
+
+        Signatures.writeSigningStringWithPayload(
+            sink,
+            SigningComponent.compile(List.of("date", "cache-control")),
+            "GET",
+            "/foo",
+            name -> {
+                lookedUp.add(name);
+                return headers.get(name);
+            },
+            null,
+            null,
+            "payload"
+        );
+
+        assertThat(sink.toString()).isEqualTo("payload\ndate: today\ncache-control: max-age=60, must-revalidate");
+        assertThat(lookedUp).containsExactly("date", "cache-control");
+    }
+
+    @Test
+    void shouldDecodeCharactersSplitAcrossRawWrites() {
+        final byte[] bytes = "caf\u00e9 \u20ac \uD83D\uDE00".getBytes(StandardCharsets.UTF_8);
+        final SigningStringSink.StringSink sink = SigningStringSink.toStringSink();
+
+        for (int i = 0; i < bytes.length; i += 2) {
+            sink.write(bytes, i, Math.min(2, bytes.length - i));
+        }
+        sink.write('\n');
+        sink.write(new byte[] { (byte) 0xE2, (byte) 0x82 }, 0, 2);
+
+        assertThat(sink.toString()).isEqualTo("caf\u00e9 \u20ac \uD83D\uDE00\n\uFFFD");
+    }
+
+    @Test
+    void shouldFailWhenHeaderHasNoValue() {
+        assertThatThrownBy(() ->
+            Signatures.writeSigningStringWithPayload(
+                SigningStringSink.toStringSink(),
+                SigningComponent.compile(List.of("date")),
+                "GET",
+                "/foo",
+                name -> List.of(),
+                null,
+                null,
+                "payload"
+            )
+        ).isInstanceOf(MissingRequiredHeaderException.class);
+    }
+
+    @Test
+    void shouldThrowTheSameStacklessExceptionForEachMissingHeader() {
+        final List<SigningComponent> components = SigningComponent.compile(List.of("date"));
+
+        final Throwable first = catchThrowable(() ->
+            Signatures.writeComponents(SigningStringSink.toStringSink(), components, "GET", "/foo", name -> null, null, null)
+        );
+        final Throwable second = catchThrowable(() ->
+            Signatures.writeComponents(SigningStringSink.toStringSink(), components, "GET", "/foo", name -> null, null, null)
+        );
+
+        assertThat(first).isInstanceOf(MissingRequiredHeaderException.class).hasMessage("date");
+        assertThat(second).isSameAs(first);
+        assertThat(first.getStackTrace()).isEmpty();
+    }
+
+    @Test
+    void shouldResetMacWhenSigningStringCannotBeWritten() throws Exception {
+        final Signer signer = new Signer(KEY, new Signature("key-id", null, Algorithm.HMAC_SHA256, null, null, List.of("date")));
+
+        assertThatThrownBy(() -> signer.signWithPayload("GET", "/", Map.of(), null, null, "payload"))
+            .isInstanceOf(MissingRequiredHeaderException.class);
+
+        final Signature signed = signer.signWithPayload("GET", "/", Map.of("date", "today"), null, null, "payload");
+        final Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(KEY);
+        final byte[] expected = mac.doFinal("payload\ndate: today".getBytes(StandardCharsets.UTF_8));
+        assertThat(signed.getSignature()).isEqualTo(new String(Base64.encodeBase64(expected), StandardCharsets.UTF_8));
+    }
+}